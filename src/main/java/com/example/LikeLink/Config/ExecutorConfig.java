@@ -0,0 +1,63 @@
+package com.example.LikeLink.Config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executors for blocking work fanned out from request threads.
+ *
+ * With spring.threads.virtual.enabled, Spring Boot moves Tomcat request handling and its task
+ * executors to virtual threads, and the pools here follow. Otherwise everything stays on
+ * bounded platform pools.
+ */
+@Slf4j
+@Configuration
+public class ExecutorConfig {
+
+    // Blocking Mongo lookups that processBooking runs side by side
+    @Bean(name = "bookingExecutor", destroyMethod = "shutdown")
+    public ExecutorService bookingExecutor(@Value("${booking.lookup-threads:16}") int threads,
+                                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            log.info("Booking lookups run on virtual threads");
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("booking-lookup-"));
+    }
+
+    // Closes batch dispatch windows; each flush queries and claims drivers in Mongo
+    @Bean(name = "dispatchScheduler", destroyMethod = "shutdown")
+    public ScheduledExecutorService dispatchScheduler(@Value("${dispatch.batch.scheduler-threads:0}") int threads,
+                                                      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        int poolSize = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        if (virtualThreads) {
+            return Executors.newScheduledThreadPool(poolSize, Thread.ofVirtual().name("batch-dispatch-", 0).factory());
+        }
+        return Executors.newScheduledThreadPool(poolSize, new CustomizableThreadFactory("batch-dispatch-"));
+    }
+
+    // SSE writes block on the client socket, so the pool grows with the number of busy streams
+    // instead of letting a handful of slow clients starve everyone else
+    @Bean(name = "sseExecutor", destroyMethod = "shutdown")
+    public ExecutorService sseExecutor(@Value("${sse.sender-max-threads:256}") int maxThreads,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("sse-sender-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
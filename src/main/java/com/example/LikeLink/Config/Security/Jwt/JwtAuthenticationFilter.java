@@ -6,7 +6,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -23,8 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final JwtTokenProvider tokenProvider; 
-    private final UserDetailsService userDetailsService;
+    private final JwtPrincipalResolver principalResolver;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -38,11 +36,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.debug("JWT Token extracted: {}", jwt != null ? "present" : "absent");
 
             if (StringUtils.hasText(jwt)) {
-                if (tokenProvider.validateToken(jwt)) {
-                    String username = tokenProvider.getUsernameFromToken(jwt);
-                    log.debug("Username extracted from token: {}", username);
-
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = principalResolver.resolve(jwt);
+                if (userDetails != null) {
                     log.debug("User authorities: {}", userDetails.getAuthorities());
 
                     UsernamePasswordAuthenticationToken authentication = 
@@ -54,7 +49,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.debug("Authentication set in SecurityContext for user: {}", username);
+                    log.debug("Authentication set in SecurityContext for user: {}", userDetails.getUsername());
                 } else {
                     log.warn("Invalid JWT token");
                 }
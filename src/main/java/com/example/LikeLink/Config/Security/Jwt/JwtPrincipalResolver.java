@@ -0,0 +1,59 @@
+package com.example.LikeLink.Config.Security.Jwt;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turns a bearer token into the authenticated principal for HTTP requests and STOMP sessions.
+ *
+ * The token is verified once. In stateless mode (jwt.stateless-auth, the default) the principal
+ * is built from the userId and roles claims the token was issued with, so authenticating a
+ * request does not read Mongo; role changes then take effect when the user next gets a token.
+ * Tokens without those claims, and stateful mode, fall back to loading the user by email.
+ * Revoked tokens are rejected.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class JwtPrincipalResolver {
+
+    private final JwtTokenProvider tokenProvider;
+    private final UserDetailsService userDetailsService;
+    private final TokenRevocationList revocationList;
+
+    @Value("${jwt.stateless-auth:true}")
+    private boolean statelessAuth;
+
+    // Null when the token is invalid or expired
+    public UserDetails resolve(String token) {
+        Claims claims = tokenProvider.parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        if (revocationList.isRevoked(token)) {
+            log.warn("Rejected revoked token for {}", claims.getSubject());
+            return null;
+        }
+
+        if (statelessAuth) {
+            String userId = claims.get("userId", String.class);
+            List<?> roles = claims.get("roles", List.class);
+            if (userId != null && roles != null && !roles.isEmpty()) {
+                return UserDetailsImpl.fromClaims(userId, claims.getSubject(),
+                    roles.stream().map(String::valueOf).toList());
+            }
+            log.debug("Token for {} has no identity claims, loading the user", claims.getSubject());
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+}
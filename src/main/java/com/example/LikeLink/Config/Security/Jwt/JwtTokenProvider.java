@@ -14,16 +14,22 @@ import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class JwtTokenProvider {
+
+    private final VerifiedTokenCache tokenCache;
     
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -34,6 +40,16 @@ public class JwtTokenProvider {
     @Value("${jwt.refreshToken.expiration}")
     private long refreshTokenExpiration;
 
+    // Built once: both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String generateAccessToken(UserDetailsImpl userPrincipal) {
         return generateToken(userPrincipal, accessTokenExpiration);
     }
@@ -59,35 +75,35 @@ public class JwtTokenProvider {
     }
     
     private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()  // Updated to use modern API
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("userId", String.class);
+        return parser.parseClaimsJws(token).getBody().get("userId", String.class);
     }
 
     public boolean validateToken(String token) {
+        return parseClaims(token) != null;
+    }
+
+    // Verifies the signature and expiry once and returns the claims, or null for an invalid token
+    public Claims parseClaims(String token) {
+        if (tokenCache.isEnabled()) {
+            Claims cached = tokenCache.get(token);
+            if (cached != null) {
+                return cached;
+            }
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (tokenCache.isEnabled()) {
+                tokenCache.put(token, claims);
+            }
+            return claims;
         } catch (SignatureException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -99,16 +115,12 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = parser.parseClaimsJws(token).getBody();
             return claims.getExpiration().before(new Date());
         } catch (ExpiredJwtException e) {
             return true;
@@ -0,0 +1,79 @@
+package com.example.LikeLink.Config.Security.Jwt;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
+import com.example.LikeLink.Service.TrackingAccessService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authenticates STOMP sessions from the bearer token sent in the CONNECT frame's
+ * Authorization header, and refuses subscriptions from sessions that never authenticated.
+ * Each SUBSCRIBE is also checked against the destination, so a session can only follow the
+ * bookings and drivers its user is part of.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtPrincipalResolver principalResolver;
+    private final TrackingAccessService trackingAccessService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String jwt = getJwtFromHeader(accessor.getFirstNativeHeader("Authorization"));
+            UserDetails userDetails = jwt == null ? null : principalResolver.resolve(jwt);
+            if (userDetails == null) {
+                throw new BadCredentialsException("Missing or invalid JWT on STOMP CONNECT");
+            }
+            accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            log.debug("STOMP session {} authenticated for {}", accessor.getSessionId(), userDetails.getUsername());
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand()) || StompCommand.SEND.equals(accessor.getCommand())) {
+            if (accessor.getUser() == null) {
+                throw new BadCredentialsException("STOMP session is not authenticated");
+            }
+            if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+                checkSubscription(accessor);
+            }
+        }
+        return message;
+    }
+
+    private void checkSubscription(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (!(accessor.getUser() instanceof Authentication authentication)
+                || !(authentication.getPrincipal() instanceof UserDetailsImpl principal)
+                || !trackingAccessService.canSubscribe(principal, destination)) {
+            log.warn("Refused STOMP subscription to {} for session {}", destination, accessor.getSessionId());
+            throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+        }
+    }
+
+    private String getJwtFromHeader(String header) {
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.LikeLink.Config.Security.Jwt;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.LikeLink.Model.RevokedToken;
+import com.example.LikeLink.Repository.RevokedTokenRepository;
+import com.example.LikeLink.Util.BloomFilter;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Access tokens revoked before their expiry.
+ *
+ * The revoked_tokens collection is the record, with a TTL at each token's own expiry. Every node
+ * mirrors it into an exact in-memory set fronted by a Bloom filter: almost every request is a
+ * definite "not revoked" from the filter, and only probable positives look at the set. Nodes
+ * pick up each other's revocations by polling for recent entries every jwt.revocation.sync-ms.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Polls reach back this far past the previous one, covering clock skew between nodes
+    @Value("${jwt.revocation.sync-overlap-ms:10000}")
+    private long syncOverlapMs;
+
+    // Token hash to the token's expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+
+    // Loaded before the context finishes starting, so no request is ever checked against an empty list
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        Instant now = Instant.now();
+        revokedTokenRepository.findByExpireAtAfter(now).forEach(this::add);
+        lastSync = now;
+        log.info("Loaded {} revoked access tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String token) {
+        String hash = VerifiedTokenCache.hash(token);
+        if (!filter.mightContain(h1(hash), h2(hash))) {
+            return false;
+        }
+        return revoked.containsKey(hash);
+    }
+
+    public void revoke(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        RevokedToken entry = new RevokedToken(VerifiedTokenCache.hash(token), claims.get("userId", String.class),
+            Instant.now(), claims.getExpiration().toInstant());
+        revokedTokenRepository.save(entry);
+        add(entry);
+        log.info("Revoked access token of user {}", entry.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:2000}")
+    public void sync() {
+        Instant started = Instant.now();
+        revokedTokenRepository.findByRevokedAtAfter(lastSync.minusMillis(syncOverlapMs)).forEach(this::add);
+        lastSync = started;
+    }
+
+    // Bits cannot be cleared, so expired tokens are dropped by rebuilding the filter from the set
+    @Scheduled(fixedRate = 600000)
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2L * revoked.size()), falsePositiveRate);
+        revoked.keySet().forEach(hash -> rebuilt.add(h1(hash), h2(hash)));
+        filter = rebuilt;
+        if (before != revoked.size()) {
+            log.debug("Dropped {} expired revocations, {} remain", before - revoked.size(), revoked.size());
+        }
+    }
+
+    // Serialized with purgeExpired so an add never lands in a filter that is about to be replaced
+    private synchronized void add(RevokedToken entry) {
+        if (revoked.putIfAbsent(entry.getId(), entry.getExpireAt().toEpochMilli()) == null) {
+            filter.add(h1(entry.getId()), h2(entry.getId()));
+        }
+    }
+
+    private static long h1(String hash) {
+        return Long.parseUnsignedLong(hash, 0, 16, 16);
+    }
+
+    private static long h2(String hash) {
+        return Long.parseUnsignedLong(hash, 16, 32, 16);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.LikeLink.Config.Security.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.LikeLink.Util.SegmentedLruCache;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of the claims of tokens whose signature has already been verified, keyed by the
+ * SHA-256 of the token. A hit replaces the Base64 decode, JSON parse and HMAC with one digest and
+ * a map lookup. Entries live until the token's own expiry.
+ *
+ * Eviction only drops the cached verification. Whether a token is still accepted at all is
+ * decided by the signature and expiry (and, where enabled, revocation).
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Value("${jwt.token-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final LongAdder evictions = new LongAdder();
+    private SegmentedLruCache<String, Claims> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new SegmentedLruCache<>(maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    // Claims of a previously verified, unexpired token, or null
+    public Claims get(String token) {
+        return cache.get(hash(token), System.currentTimeMillis());
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        cache.put(hash(token), claims, claims.getExpiration().getTime());
+    }
+
+    public void evict(String token) {
+        if (cache.remove(hash(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    // Drops every cached token issued to a user, used on logout
+    public void evictUser(String userId) {
+        evictions.add(cache.removeIf(claims -> userId.equals(claims.get("userId", String.class))));
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logStats() {
+        if (log.isDebugEnabled()) {
+            log.debug("Token cache: {}, {} evictions", cache.stats(), getEvictionCount());
+        }
+    }
+
+    // Hex SHA-256 of a token, the key tokens are cached and revoked under
+    public static String hash(String token) {
+        MessageDigest digest = SHA_256.get();
+        return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -7,21 +7,26 @@ import org.springframework.stereotype.Component;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 
+import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
 import com.example.LikeLink.Model.User;
-import com.example.LikeLink.Repository.UserRepository;
+import com.example.LikeLink.Service.UserIdentityCache;
 
 @Component
 public class SecurityExpressionRoot {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityCache identityCache;
 
     public boolean isResourceOwner(String resourceId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null) return false;
 
+        if (authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return resourceId.equals(principal.getId());
+        }
+
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userRepository.findByEmail(userDetails.getUsername())
+        User user = identityCache.findByEmail(userDetails.getUsername())
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         
         return user.getId().equals(resourceId);
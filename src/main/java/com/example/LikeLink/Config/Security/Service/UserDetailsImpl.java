@@ -57,6 +57,16 @@ public class UserDetailsImpl implements UserDetails {
         );
     }
 
+    // Principal rebuilt from verified token claims, without the password hash or the name
+    public static UserDetailsImpl fromClaims(String id, String email, List<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+            .toList();
+        String role = roles.isEmpty() ? null : roles.get(0).replaceFirst("^ROLE_", "");
+
+        return new UserDetailsImpl(id, email, null, null, role, authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
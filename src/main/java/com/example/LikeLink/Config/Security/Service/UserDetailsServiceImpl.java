@@ -8,18 +8,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.LikeLink.Model.User;
-import com.example.LikeLink.Repository.UserRepository;
+import com.example.LikeLink.Service.UserIdentityCache;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityCache identityCache;
 
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        User user = identityCache.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return UserDetailsImpl.build(user);
@@ -27,7 +27,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Transactional
     public UserDetails loadUserById(String id) throws UsernameNotFoundException {
-        User user = userRepository.findById(id)
+        User user = identityCache.findById(id)
             .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
 
         return UserDetailsImpl.build(user);
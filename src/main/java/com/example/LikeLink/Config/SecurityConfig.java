@@ -18,6 +18,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import com.example.LikeLink.Config.Security.Jwt.AuthEntryPointJwt;
 import com.example.LikeLink.Config.Security.Jwt.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -46,10 +47,14 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authorizeHttpRequests(auth -> auth
+                // Async result dispatches were already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/test/**").permitAll()
                 .requestMatchers("/api/health/**").permitAll()
+                .requestMatchers("/ws/**").permitAll() // STOMP authenticates on CONNECT
                 .requestMatchers("/error").permitAll()
                 
                 // Role-based authorization
@@ -57,6 +62,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/insurance/**").hasRole("PATIENT")
                 .requestMatchers("/api/hospital/**").hasRole("HOSPITAL")
                 .requestMatchers("/api/ambulance/**").hasRole("AMBULANCE_DRIVER")
+                .requestMatchers("/api/reactive/ambulance/**").hasRole("AMBULANCE_DRIVER")
                 
                 // Require authentication for all other requests
                 .anyRequest().authenticated()
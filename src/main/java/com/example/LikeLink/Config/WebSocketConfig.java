@@ -0,0 +1,75 @@
+package com.example.LikeLink.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import com.example.LikeLink.Config.Security.Jwt.StompAuthChannelInterceptor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * STOMP over WebSocket for live tracking.
+ *
+ * The default in-memory simple broker only reaches clients connected to this instance, so it is
+ * limited to single-node deployments. With websocket.relay.enabled, topics are relayed through an
+ * external STOMP broker (RabbitMQ or ActiveMQ with the STOMP plugin) and every instance's
+ * subscribers get every instance's updates.
+ */
+@Slf4j
+@Configuration
+@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Value("${websocket.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Authentication happens on the STOMP CONNECT frame, not on the HTTP handshake
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        // Tracking topics: /topic/drivers/{driverId}/location and /topic/bookings/{bookingId}/location
+        if (relayEnabled) {
+            log.info("Relaying STOMP topics through {}:{}", relayHost, relayPort);
+            registry.enableStompBrokerRelay("/topic")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode);
+        } else {
+            registry.enableSimpleBroker("/topic");
+        }
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+}
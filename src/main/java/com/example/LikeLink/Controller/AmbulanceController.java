@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.*;
 
 import com.example.LikeLink.Exception.DriverAlreadyExistsException;
 import com.example.LikeLink.Exception.DriverNotFoundException;
+import com.example.LikeLink.Exception.InvalidLocationException;
 import com.example.LikeLink.Exception.UserNotFoundException;
 import com.example.LikeLink.Model.AmbulanceDriver;
 import com.example.LikeLink.Model.AmbulanceDriverRegistrationDto;
@@ -90,7 +91,7 @@ public class AmbulanceController {
             Authentication authentication) {
         try {
             String email = authentication.getName();
-            log.info("Updating location for driver: {} to: {}", email, locationDto);
+            log.debug("Updating location for driver: {} to: {}", email, locationDto);
             Location location = new Location(locationDto.getLatitude(), locationDto.getLongitude());
             driverService.updateDriverLocation(email, location);
             return ResponseEntity.ok(location);
@@ -98,6 +99,9 @@ public class AmbulanceController {
             log.error("Location update failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(null);
+        } catch (InvalidLocationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(null);
         }
     }
     
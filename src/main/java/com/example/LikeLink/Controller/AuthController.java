@@ -15,9 +15,9 @@ import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
 import com.example.LikeLink.Exception.TokenRefreshException;
 import com.example.LikeLink.Model.RefreshToken;
 import com.example.LikeLink.Model.User;
-import com.example.LikeLink.Repository.UserRepository;
 import com.example.LikeLink.Service.AuthService;
 import com.example.LikeLink.Service.RefreshTokenService;
+import com.example.LikeLink.Service.UserIdentityCache;
 import com.example.LikeLink.dto.request.LoginRequest;
 import com.example.LikeLink.dto.request.LogoutRequest;
 import com.example.LikeLink.dto.request.SignupRequest;
@@ -39,7 +39,7 @@ public class AuthController {
     private final RefreshTokenService refreshTokenService; 
 	
 	@Autowired 
-	private final UserRepository userRepository; 
+	private final UserIdentityCache identityCache; 
 	
 	@Autowired 
 	private final JwtTokenProvider jwtTokenProvider;
@@ -55,8 +55,13 @@ public class AuthController {
     } 
     
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser(@RequestBody LogoutRequest logoutRequest) {
-        refreshTokenService.deleteByUserId(logoutRequest.getUserId());
+    public ResponseEntity<?> logoutUser(
+            @RequestBody LogoutRequest logoutRequest,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+            ? authorization.substring(7)
+            : null;
+        authService.logout(logoutRequest.getUserId(), accessToken);
         return ResponseEntity.ok(new MessageResponse("Log out successful!"));
     }
     
@@ -68,7 +73,7 @@ public class AuthController {
                 .map(refreshTokenService::verifyExpiration)
                 .map(RefreshToken::getUserId)
                 .map(userId -> {
-                    User user = userRepository.findById(userId)
+                    User user = identityCache.findById(userId)
                             .orElseThrow(() -> new TokenRefreshException(requestRefreshToken, 
                                 "User not found with refresh token"));
                                 
@@ -1,21 +1,32 @@
 package com.example.LikeLink.Controller;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
+import com.example.LikeLink.Enum.HistoryResolution;
+import com.example.LikeLink.Exception.BookingException;
 import com.example.LikeLink.Exception.ResourceNotFoundException;
 import com.example.LikeLink.Model.Booking;
 import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Model.LocationPoint;
+import com.example.LikeLink.Service.BookingEventService;
+import com.example.LikeLink.Service.BookingIdempotencyService;
 import com.example.LikeLink.Service.BookingService;
 import com.example.LikeLink.Service.DriverLocationService;
+import com.example.LikeLink.Util.StageTimings;
 import com.example.LikeLink.dto.request.BookingRequest;
 import com.example.LikeLink.dto.response.ApiResponse;
 import com.example.LikeLink.dto.response.BookingResponse;
@@ -35,13 +46,40 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final DriverLocationService driverLocationService;
+    private final BookingEventService bookingEventService;
+    private final BookingIdempotencyService idempotencyService;
 
 
     @PostMapping("/request")
-    public ResponseEntity<?> requestAmbulance(@Valid @RequestBody BookingRequest request) {
+    public ResponseEntity<?> requestAmbulance(
+            @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @AuthenticationPrincipal UserDetailsImpl principal) {
         try {
-            BookingResponse response = bookingService.processBooking(request);
+            BookingResponse response;
+            if (idempotencyKey == null) {
+                if (!principal.getId().equals(request.getUserId())) {
+                    throw BookingIdempotencyService.userMismatch();
+                }
+                response = bookingService.processBooking(request);
+            } else {
+                BookingIdempotencyService.Outcome outcome =
+                    idempotencyService.process(idempotencyKey, request, principal.getId());
+                response = outcome.getResponse();
+                if (outcome.isReplayed()) {
+                    return ResponseEntity.ok().header("Idempotent-Replayed", "true").body(response);
+                }
+            }
+            if (response.getStageTimings() != null) {
+                return ResponseEntity.ok()
+                    .header("Server-Timing", StageTimings.toServerTiming(response.getStageTimings()))
+                    .body(response);
+            }
             return ResponseEntity.ok(response);
+        } catch (BookingException e) {
+            log.warn("Booking request rejected: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus())
+                .body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             log.error("Error processing booking request", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -101,6 +139,40 @@ public class BookingController {
                 .body(new ApiResponse<>(false, "Failed to fetch driver location", null));
         }
     }
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamBookingEvents(
+            @PathVariable String id,
+            Authentication authentication) {
+        try {
+            SseEmitter emitter = bookingEventService.subscribe(id);
+            return ResponseEntity.ok(emitter);
+        } catch (ResourceNotFoundException e) {
+            log.warn("Booking not found: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{id}/track")
+    public ResponseEntity<?> getBookingTrack(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "SECONDS_30") HistoryResolution resolution,
+            Authentication authentication) {
+        try {
+            List<LocationPoint> track = bookingService.getBookingTrack(id, resolution);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Retrieved booking track", track));
+        } catch (ResourceNotFoundException e) {
+            log.warn("Booking not found: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Error fetching booking track", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse<>(false, "Failed to fetch booking track", null));
+        }
+    }
+
     @GetMapping("/{driverId}")
     public ResponseEntity<?> getDriverBookings(Authentication authentication, @PathVariable String driverId) {
         try {
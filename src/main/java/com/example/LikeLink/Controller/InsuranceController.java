@@ -2,7 +2,7 @@ package com.example.LikeLink.Controller;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
 import com.example.LikeLink.Enum.InsuranceType;
 import com.example.LikeLink.Service.InsuranceService;
 import com.example.LikeLink.dto.request.InsuranceRequest;
@@ -38,25 +39,25 @@ public class InsuranceController {
     @PostMapping
     public ResponseEntity<InsuranceResponse> addInsurance(
             @Valid @RequestBody InsuranceRequest insuranceRequest,
-            Authentication authentication) {
-        log.info("Adding insurance for user: {}", authentication.getName());
-        InsuranceResponse savedInsurance = insuranceService.addInsurance(insuranceRequest, authentication.getName());
+            @AuthenticationPrincipal UserDetailsImpl principal) {
+        log.info("Adding insurance for user: {}", principal.getId());
+        InsuranceResponse savedInsurance = insuranceService.addInsurance(insuranceRequest, principal.getId());
         return ResponseEntity.ok(savedInsurance);
     }
 
     @GetMapping
-    public ResponseEntity<List<InsuranceResponse>> getAllInsurance(Authentication authentication) {
-        log.info("Fetching all insurance for user: {}", authentication.getName());
-        List<InsuranceResponse> insurances = insuranceService.getAllInsurance(authentication.getName());
+    public ResponseEntity<List<InsuranceResponse>> getAllInsurance(@AuthenticationPrincipal UserDetailsImpl principal) {
+        log.info("Fetching all insurance for user: {}", principal.getId());
+        List<InsuranceResponse> insurances = insuranceService.getAllInsurance(principal.getId());
         return ResponseEntity.ok(insurances);
     }
 
     @GetMapping("/{insuranceId}")
     public ResponseEntity<InsuranceResponse> getInsurance(
             @PathVariable String insuranceId,
-            Authentication authentication) {
-        log.info("Fetching insurance {} for user: {}", insuranceId, authentication.getName());
-        InsuranceResponse insurance = insuranceService.getInsurance(insuranceId, authentication.getName());
+            @AuthenticationPrincipal UserDetailsImpl principal) {
+        log.info("Fetching insurance {} for user: {}", insuranceId, principal.getId());
+        InsuranceResponse insurance = insuranceService.getInsurance(insuranceId, principal.getId());
         return ResponseEntity.ok(insurance);
     }
 
@@ -64,36 +65,36 @@ public class InsuranceController {
     public ResponseEntity<InsuranceResponse> updateInsurance(
             @PathVariable String insuranceId,
             @Valid @RequestBody InsuranceRequest insuranceRequest,
-            Authentication authentication) {
-        log.info("Updating insurance {} for user: {}", insuranceId, authentication.getName());
+            @AuthenticationPrincipal UserDetailsImpl principal) {
+        log.info("Updating insurance {} for user: {}", insuranceId, principal.getId());
         InsuranceResponse updatedInsurance = insuranceService.updateInsurance(
-            insuranceId, insuranceRequest, authentication.getName());
+            insuranceId, insuranceRequest, principal.getId());
         return ResponseEntity.ok(updatedInsurance);
     }
 
     @DeleteMapping("/{insuranceId}")
     public ResponseEntity<Void> deleteInsurance(
             @PathVariable String insuranceId,
-            Authentication authentication) {
-        log.info("Deleting insurance {} for user: {}", insuranceId, authentication.getName());
-        insuranceService.deleteInsurance(insuranceId, authentication.getName());
+            @AuthenticationPrincipal UserDetailsImpl principal) {
+        log.info("Deleting insurance {} for user: {}", insuranceId, principal.getId());
+        insuranceService.deleteInsurance(insuranceId, principal.getId());
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<InsuranceResponse>> getActiveInsurance(Authentication authentication) {
-        log.info("Fetching active insurance for user: {}", authentication.getName());
-        List<InsuranceResponse> activeInsurances = insuranceService.getActiveInsurance(authentication.getName());
+    public ResponseEntity<List<InsuranceResponse>> getActiveInsurance(@AuthenticationPrincipal UserDetailsImpl principal) {
+        log.info("Fetching active insurance for user: {}", principal.getId());
+        List<InsuranceResponse> activeInsurances = insuranceService.getActiveInsuranceByUserId(principal.getId());
         return ResponseEntity.ok(activeInsurances);
     }
 
     @GetMapping("/type/{insuranceType}")
     public ResponseEntity<List<InsuranceResponse>> getInsuranceByType(
             @PathVariable InsuranceType insuranceType,
-            Authentication authentication) {
-        log.info("Fetching {} insurance for user: {}", insuranceType, authentication.getName());
+            @AuthenticationPrincipal UserDetailsImpl principal) {
+        log.info("Fetching {} insurance for user: {}", insuranceType, principal.getId());
         List<InsuranceResponse> insurances = insuranceService.getInsuranceByType(
-            insuranceType, authentication.getName());
+            insuranceType, principal.getId());
         return ResponseEntity.ok(insurances);
     }
 
@@ -101,10 +102,10 @@ public class InsuranceController {
     public ResponseEntity<InsuranceResponse> updateEmergencyServiceCoverage(
             @PathVariable String insuranceId,
             @RequestParam boolean covers,
-            Authentication authentication) {
+            @AuthenticationPrincipal UserDetailsImpl principal) {
         log.info("Updating emergency service coverage for insurance {} to {}", insuranceId, covers);
         InsuranceResponse updated = insuranceService.updateEmergencyServiceCoverage(
-            insuranceId, covers, authentication.getName());
+            insuranceId, covers, principal.getId());
         return ResponseEntity.ok(updated);
     }
 
@@ -112,10 +113,10 @@ public class InsuranceController {
     public ResponseEntity<InsuranceResponse> updateAmbulanceServiceCoverage(
             @PathVariable String insuranceId,
             @RequestParam boolean covers,
-            Authentication authentication) {
+            @AuthenticationPrincipal UserDetailsImpl principal) {
         log.info("Updating ambulance service coverage for insurance {} to {}", insuranceId, covers);
         InsuranceResponse updated = insuranceService.updateAmbulanceServiceCoverage(
-            insuranceId, covers, authentication.getName());
+            insuranceId, covers, principal.getId());
         return ResponseEntity.ok(updated);
     }
 }
@@ -0,0 +1,74 @@
+package com.example.LikeLink.Controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.LikeLink.Exception.DriverNotFoundException;
+import com.example.LikeLink.Exception.ResourceNotFoundException;
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Model.LocationUpdateDto;
+import com.example.LikeLink.Service.ReactiveTrackingService;
+import com.example.LikeLink.dto.response.ApiResponse;
+import com.example.LikeLink.dto.response.DriverLocation;
+import com.example.LikeLink.dto.response.DriverLocationEvent;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking twins of the location ingest and tracking endpoints, enabled with the "reactive" profile
+@RestController
+@RequestMapping("/api/reactive")
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTrackingController {
+
+    private final ReactiveTrackingService trackingService;
+
+    @PutMapping("/ambulance/location")
+    @PreAuthorize("hasRole('AMBULANCE_DRIVER')")
+    public Mono<ResponseEntity<?>> updateLocation(
+            @Valid @RequestBody LocationUpdateDto locationDto,
+            Authentication authentication) {
+        Location location = new Location(locationDto.getLatitude(), locationDto.getLongitude());
+        return trackingService.updateLocation(authentication.getName(), location)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(DriverNotFoundException.class, e -> {
+                log.error("Location update failed: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(null));
+            });
+    }
+
+    @GetMapping("/bookings/drivers/{driverId}/location")
+    public Mono<ResponseEntity<?>> getDriverLocation(@PathVariable String driverId) {
+        return trackingService.getDriverLocation(driverId)
+            .<ResponseEntity<?>>map(location ->
+                ResponseEntity.ok(new DriverLocation(location.getLatitude(), location.getLongitude())))
+            .onErrorResume(ResourceNotFoundException.class, e -> Mono.just(
+                ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(false, e.getMessage(), null))));
+    }
+
+    @GetMapping(value = "/bookings/drivers/{driverId}/location/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DriverLocationEvent>> streamDriverLocation(@PathVariable String driverId) {
+        return trackingService.streamDriverLocation(driverId);
+    }
+
+    @GetMapping(value = "/bookings/{bookingId}/location/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DriverLocationEvent>> streamBookingLocation(@PathVariable String bookingId) {
+        return trackingService.streamBookingLocation(bookingId);
+    }
+}
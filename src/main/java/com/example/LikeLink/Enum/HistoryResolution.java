@@ -0,0 +1,26 @@
+package com.example.LikeLink.Enum;
+
+public enum HistoryResolution {
+    // Every accepted ping, one bucket per driver per 15 minutes
+    RAW(0L, 15 * 60 * 1000L),
+    // First ping of every 30 seconds, one bucket per driver per 6 hours
+    SECONDS_30(30 * 1000L, 6 * 60 * 60 * 1000L),
+    // First ping of every 5 minutes, one bucket per driver per day
+    MINUTES_5(5 * 60 * 1000L, 24 * 60 * 60 * 1000L);
+
+    private final long sampleMillis;
+    private final long bucketMillis;
+
+    HistoryResolution(long sampleMillis, long bucketMillis) {
+        this.sampleMillis = sampleMillis;
+        this.bucketMillis = bucketMillis;
+    }
+
+    public long getSampleMillis() {
+        return sampleMillis;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.LikeLink.Enum;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
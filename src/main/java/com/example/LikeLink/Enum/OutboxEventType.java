@@ -0,0 +1,6 @@
+package com.example.LikeLink.Enum;
+
+public enum OutboxEventType {
+    INCOMING_PATIENT,
+    BLOOD_REQUEST
+}
@@ -0,0 +1,8 @@
+package com.example.LikeLink.Enum;
+
+public enum OutboxStatus {
+    PENDING,
+    // Handled events are removed now; only bookings written by older versions still carry DONE
+    DONE,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package com.example.LikeLink.Event;
+
+import com.example.LikeLink.Model.Booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published after a booking with a new status has been saved
+@Getter
+@AllArgsConstructor
+public class BookingStatusChangedEvent {
+    private final Booking booking;
+}
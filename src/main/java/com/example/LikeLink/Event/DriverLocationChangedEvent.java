@@ -0,0 +1,14 @@
+package com.example.LikeLink.Event;
+
+import com.example.LikeLink.Model.Location;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published synchronously for every accepted driver location ping
+@Getter
+@AllArgsConstructor
+public class DriverLocationChangedEvent {
+    private final String driverId;
+    private final Location location;
+}
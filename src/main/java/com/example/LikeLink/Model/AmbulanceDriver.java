@@ -89,10 +89,26 @@ public class AmbulanceDriver {
     @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
     private Location currentLocation;
 
+    // When currentLocation was reported, as opposed to updatedAt which any write bumps
+    private LocalDateTime locationUpdatedAt;
+
+    // Set by the driver going on or off shift; claims and releases never touch it
+    private boolean onDuty = true;
+
+    // When a booking claimed the driver, null while free; cleared again when the booking ends
+    private LocalDateTime claimedAt;
+
+    private VerificationStatus verificationStatus;
+    private String verificationComment;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
 
+    public boolean isDispatchable() {
+        return onDuty && claimedAt == null;
+    }
+
     public void updateLocation(Double latitude, Double longitude) {
         this.currentLocation = new Location(latitude, longitude);
     }
@@ -1,13 +1,17 @@
 package com.example.LikeLink.Model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.example.LikeLink.Enum.BookingStatus;
 import com.example.LikeLink.dto.request.LocationRequest;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,6 +21,7 @@ import jakarta.validation.constraints.NotNull;
 
 
 @Document(collection = "bookings")
+@CompoundIndex(name = "outbox_due", def = "{'outbox.status': 1, 'outbox.nextAttemptAt': 1}", sparse = true)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +42,11 @@ public class Booking {
 
     private Location destinationLocation;
 
+    private String hospitalId;
+
+    // Whether this booking holds one of the hospital's emergency beds
+    private boolean hospitalBedHeld;
+
     @NotNull
     @Indexed
     private BookingStatus status;
@@ -46,6 +56,23 @@ public class Booking {
 
     private LocalDateTime updatedAt;
 
+    // Side effects still to run, written in the same document write as the booking
+    @JsonIgnore
+    private List<OutboxEvent> outbox = new ArrayList<>();
+
+    @JsonIgnore
+    private LocalDateTime outboxLeaseUntil;
+
+    // User-scoped Idempotency-Key of the request that created the booking, null for requests without one
+    @JsonIgnore
+    @Indexed(unique = true, sparse = true)
+    private String idempotencyKey;
+
+    // Identifies the dispatcher poll holding the lease, so a batch claim can read back what it took
+    @JsonIgnore
+    @Indexed(sparse = true)
+    private String outboxLeaseToken;
+
     // Helper methods
     public boolean isActive() {
         return status != BookingStatus.COMPLETED && 
@@ -0,0 +1,38 @@
+package com.example.LikeLink.Model;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.example.LikeLink.Enum.HistoryResolution;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One document holds all of a driver's points for one time window at one resolution
+@Data
+@NoArgsConstructor
+@Document(collection = "driver_location_history")
+@CompoundIndex(name = "driver_resolution_start", def = "{'driverId': 1, 'resolution': 1, 'bucketStart': 1}", unique = true)
+public class DriverLocationBucket {
+    @Id
+    private String id;
+
+    private String driverId;
+
+    private HistoryResolution resolution;
+
+    private Instant bucketStart;
+
+    private int count;
+
+    private List<LocationPoint> points;
+
+    // Only raw buckets expire, rollups are kept
+    @Indexed(expireAfter = "0s")
+    private Instant expireAt;
+}
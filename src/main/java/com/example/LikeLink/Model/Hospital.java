@@ -25,6 +25,8 @@ public class Hospital {
     private int totalBeds;
     private int icuBeds;
     private int emergencyBeds;
+    // Live count of free emergency beds, only changed through atomic $inc
+    private Integer availableEmergencyBeds;
     private boolean hasAmbulanceService;
     private boolean hasEmergencyService;
     private List<String> departments;
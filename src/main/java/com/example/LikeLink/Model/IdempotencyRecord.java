@@ -0,0 +1,36 @@
+package com.example.LikeLink.Model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.example.LikeLink.Enum.IdempotencyStatus;
+import com.example.LikeLink.dto.response.BookingResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a booking request, keyed by the user and the client's Idempotency-Key
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    private String id;
+
+    private IdempotencyStatus status;
+
+    private BookingResponse response;
+
+    private Instant createdAt;
+
+    // Last heartbeat of the node running an in-progress claim
+    private Instant renewedAt;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expireAt;
+}
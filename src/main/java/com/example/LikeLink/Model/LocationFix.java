@@ -0,0 +1,25 @@
+package com.example.LikeLink.Model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A driver position and when the instance that received it saw it
+@Getter
+@AllArgsConstructor
+public class LocationFix {
+    private final Location location;
+    private final Instant seenAt;
+
+    // Compared against AmbulanceDriver.locationUpdatedAt; a document that never recorded one is older
+    public boolean isNewerThan(LocalDateTime persistedAt) {
+        return persistedAt == null || seenAt.isAfter(persistedAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public LocalDateTime getSeenAtLocal() {
+        return LocalDateTime.ofInstant(seenAt, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.LikeLink.Model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPoint {
+    private Instant t;
+    private double latitude;
+    private double longitude;
+}
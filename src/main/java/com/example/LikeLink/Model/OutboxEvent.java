@@ -0,0 +1,35 @@
+package com.example.LikeLink.Model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.LikeLink.Enum.OutboxEventType;
+import com.example.LikeLink.Enum.OutboxStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A side effect of a booking, stored inside the booking document so it is written atomically
+ * with it. The event id doubles as the id of the record the handler creates, which makes
+ * redelivery after a crash or a lost lease harmless.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    private String eventId;
+    private OutboxEventType type;
+    private String userId;
+    private String hospitalId;
+    private OutboxStatus status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+
+    public static OutboxEvent pending(OutboxEventType type, String userId, String hospitalId, LocalDateTime now) {
+        return new OutboxEvent(UUID.randomUUID().toString(), type, userId, hospitalId,
+            OutboxStatus.PENDING, 0, now, null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.LikeLink.Model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// An access token rejected before its expiry, keyed by the token's SHA-256
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String id;
+
+    private String userId;
+
+    @Indexed
+    private Instant revokedAt;
+
+    // Once the token has expired it is rejected anyway, so the entry can go
+    @Indexed(expireAfter = "0s")
+    private Instant expireAt;
+}
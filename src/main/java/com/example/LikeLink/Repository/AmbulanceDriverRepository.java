@@ -1,15 +1,17 @@
 package com.example.LikeLink.Repository;
 
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import com.example.LikeLink.Enum.VerificationStatus;
 import com.example.LikeLink.Model.AmbulanceDriver;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface AmbulanceDriverRepository extends MongoRepository<AmbulanceDriver, String> {
+public interface AmbulanceDriverRepository extends MongoRepository<AmbulanceDriver, String>, AmbulanceDriverRepositoryCustom {
     
     Optional<AmbulanceDriver> findByEmail(String email);
     
@@ -25,6 +27,14 @@ public interface AmbulanceDriverRepository extends MongoRepository<AmbulanceDriv
     @Query("{ 'currentLocation': { $exists: true, $ne: null }, 'currentLocation.coordinates': { $exists: true, $ne: null } }")
     List<AmbulanceDriver> findAll();
 
+    // Closest on-duty, unclaimed, recently located drivers first, selected server-side through the 2dsphere index on currentLocation
+    @Aggregation(pipeline = {
+        "{ $geoNear: { near: { type: 'Point', coordinates: [?0, ?1] }, key: 'currentLocation', distanceField: 'distanceMeters', maxDistance: ?2, spherical: true, query: { onDuty: { $ne: false }, claimedAt: null, locationUpdatedAt: { $gte: ?3 }, 'currentLocation.coordinates': { $ne: [0.0, 0.0] } } } }",
+        "{ $limit: ?4 }"
+    })
+    List<AmbulanceDriver> findNearestDrivers(double longitude, double latitude, double maxDistanceMeters,
+                                             LocalDateTime locatedSince, int limit);
+
     
     boolean existsByEmail(String email);
     
@@ -0,0 +1,32 @@
+package com.example.LikeLink.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import com.example.LikeLink.Enum.VerificationStatus;
+import com.example.LikeLink.Model.AmbulanceDriver;
+import com.example.LikeLink.Model.AmbulanceDriverRegistrationDto;
+import com.example.LikeLink.Model.LocationFix;
+
+public interface AmbulanceDriverRepositoryCustom {
+
+    // Atomically stamps claimedAt on an on-duty, unclaimed driver; empty when someone else got there first
+    Optional<AmbulanceDriver> claimDriver(String driverId);
+
+    // Clears the claim only, a driver who went off duty mid-booking stays off duty
+    boolean releaseDriver(String driverId);
+
+    boolean setOnDuty(String driverId, boolean onDuty);
+
+    // $set of the registration fields alone, so it cannot undo a concurrent claim or location flush
+    Optional<AmbulanceDriver> updateProfile(String driverId, AmbulanceDriverRegistrationDto dto);
+
+    Optional<AmbulanceDriver> updateVerification(String licenseNumber, VerificationStatus status, String comment);
+
+    // Moves documents still carrying the old combined 'available' flag onto onDuty/claimedAt
+    long migrateLegacyAvailability();
+
+    // One unordered bulk write that only sets currentLocation/locationUpdatedAt/updatedAt; returns matched documents
+    int bulkUpdateLocations(Map<String, LocationFix> fixesByDriverId, LocalDateTime updatedAt);
+}
@@ -0,0 +1,127 @@
+package com.example.LikeLink.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LikeLink.Enum.VerificationStatus;
+import com.example.LikeLink.Model.AmbulanceDriver;
+import com.example.LikeLink.Model.AmbulanceDriverRegistrationDto;
+import com.example.LikeLink.Model.LocationFix;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class AmbulanceDriverRepositoryImpl implements AmbulanceDriverRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<AmbulanceDriver> claimDriver(String driverId) {
+        // Documents without an 'onDuty' field predate the flag and count as on duty
+        Query query = Query.query(Criteria.where("_id").is(driverId)
+            .and("onDuty").ne(false)
+            .and("claimedAt").is(null));
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+            .set("claimedAt", now)
+            .set("updatedAt", now);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(true), AmbulanceDriver.class));
+    }
+
+    @Override
+    public boolean releaseDriver(String driverId) {
+        Query query = Query.query(Criteria.where("_id").is(driverId).and("claimedAt").ne(null));
+        Update update = new Update()
+            .unset("claimedAt")
+            .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(query, update, AmbulanceDriver.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean setOnDuty(String driverId, boolean onDuty) {
+        Query query = Query.query(Criteria.where("_id").is(driverId));
+        Update update = new Update()
+            .set("onDuty", onDuty)
+            .set("updatedAt", LocalDateTime.now());
+
+        return mongoTemplate.updateFirst(query, update, AmbulanceDriver.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<AmbulanceDriver> updateProfile(String driverId, AmbulanceDriverRegistrationDto dto) {
+        Query query = Query.query(Criteria.where("_id").is(driverId));
+        Update update = new Update()
+            .set("fullName", dto.getFullName())
+            .set("dateOfBirth", dto.getDateOfBirth())
+            .set("phoneNumber", dto.getPhoneNumber())
+            .set("currentAddress", dto.getCurrentAddress())
+            .set("driversLicenseNumber", dto.getDriversLicenseNumber())
+            .set("licenseType", dto.getLicenseType())
+            .set("experienceWithEmergencyVehicle", dto.isExperienceWithEmergencyVehicle())
+            .set("yearsOfEmergencyExperience", dto.getYearsOfEmergencyExperience())
+            .set("vehicleRegistrationNumber", dto.getVehicleRegistrationNumber())
+            .set("hasAirConditioning", dto.isHasAirConditioning())
+            .set("hasOxygenCylinderHolder", dto.isHasOxygenCylinderHolder())
+            .set("hasStretcher", dto.isHasStretcher())
+            .set("insurancePolicyNumber", dto.getInsurancePolicyNumber())
+            .set("insuranceExpiryDate", dto.getInsuranceExpiryDate())
+            .set("updatedAt", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(true), AmbulanceDriver.class));
+    }
+
+    @Override
+    public Optional<AmbulanceDriver> updateVerification(String licenseNumber, VerificationStatus status, String comment) {
+        Query query = Query.query(Criteria.where("driversLicenseNumber").is(licenseNumber));
+        Update update = new Update()
+            .set("verificationStatus", status)
+            .set("verificationComment", comment)
+            .set("updatedAt", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            query, update, FindAndModifyOptions.options().returnNew(true), AmbulanceDriver.class));
+    }
+
+    @Override
+    public long migrateLegacyAvailability() {
+        // 'available: false' meant either off duty or busy and the two cannot be told apart any more;
+        // parking them off duty never double-books, the driver just goes back on duty themselves
+        long offDuty = mongoTemplate.updateMulti(
+            Query.query(Criteria.where("available").is(false).and("onDuty").exists(false)),
+            new Update().set("onDuty", false).unset("available"),
+            AmbulanceDriver.class).getModifiedCount();
+        long cleared = mongoTemplate.updateMulti(
+            Query.query(Criteria.where("available").exists(true)),
+            new Update().unset("available"),
+            AmbulanceDriver.class).getModifiedCount();
+        return offDuty + cleared;
+    }
+
+    @Override
+    public int bulkUpdateLocations(Map<String, LocationFix> fixesByDriverId, LocalDateTime updatedAt) {
+        if (fixesByDriverId.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AmbulanceDriver.class);
+        fixesByDriverId.forEach((driverId, fix) -> bulk.updateOne(
+            Query.query(Criteria.where("_id").is(driverId)),
+            new Update()
+                .set("currentLocation", fix.getLocation())
+                .set("locationUpdatedAt", fix.getSeenAtLocal())
+                .set("updatedAt", updatedAt)));
+
+        return bulk.execute().getMatchedCount();
+    }
+}
@@ -14,7 +14,7 @@ import com.example.LikeLink.Model.Booking;
 
 
 @Repository
-public interface BookingRepository extends MongoRepository<Booking, String> {
+public interface BookingRepository extends MongoRepository<Booking, String>, BookingRepositoryCustom {
     
     // Find bookings assigned to a specific driver with given status
     List<Booking> findByDriverIdAndStatus(String driverId, BookingStatus status);
@@ -23,10 +23,17 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
     @Query("{'userId': ?0, 'status': { $nin: ['COMPLETED', 'CANCELLED'] }}")
     List<Booking> findActiveBookingsByUserId(String userId);
     
+    @Query("{'driverId': ?0, 'status': { $nin: ['COMPLETED', 'CANCELLED'] }}")
+    List<Booking> findActiveBookingsByDriverId(String driverId);
+
     // Find latest booking for a user
     Optional<Booking> findFirstByUserIdOrderByCreatedAtDesc(String userId); 
     
     List<Booking> findByDriverId(String driverId);
+
+    Optional<Booking> findByIdempotencyKey(String idempotencyKey);
+
+    List<Booking> findByStatus(BookingStatus status);
     
     // Find nearby bookings
     @Query("{'pickupLocation': {" +
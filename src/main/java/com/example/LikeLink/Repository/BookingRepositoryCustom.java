@@ -0,0 +1,34 @@
+package com.example.LikeLink.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import com.example.LikeLink.Enum.BookingStatus;
+import com.example.LikeLink.Enum.OutboxStatus;
+import com.example.LikeLink.Model.Booking;
+
+public interface BookingRepositoryCustom {
+
+    // Leases up to limit bookings with a due outbox event under leaseToken until leaseUntil, and returns them
+    List<Booking> claimOutbox(LocalDateTime now, LocalDateTime leaseUntil, String leaseToken, int limit);
+
+    // Removes the handled event from the booking, the booking document does not keep a history of them
+    void removeOutboxEvent(String bookingId, String eventId);
+
+    // Drops DONE events left by versions that kept handled events, returns the bookings changed
+    long removeDoneOutboxEvents();
+
+    void markOutboxRetry(String bookingId, String eventId, OutboxStatus status, int attempts,
+                         LocalDateTime nextAttemptAt, String lastError);
+
+    // Only releases the lease while leaseToken still holds it
+    void releaseOutboxLease(String bookingId, String leaseToken);
+
+    // Moves the booking from one status to another, empty unless this caller made the transition.
+    // A null driverId matches any driver. Only status and updatedAt are written.
+    Optional<Booking> transitionStatus(String bookingId, String driverId, BookingStatus from, BookingStatus to);
+
+    // Clears the held-bed flag, true only for the one caller that actually cleared it
+    boolean clearHospitalBed(String bookingId);
+}
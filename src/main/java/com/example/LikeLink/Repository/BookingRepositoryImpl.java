@@ -0,0 +1,109 @@
+package com.example.LikeLink.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LikeLink.Enum.BookingStatus;
+import com.example.LikeLink.Enum.OutboxStatus;
+import com.example.LikeLink.Model.Booking;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Booking> claimOutbox(LocalDateTime now, LocalDateTime leaseUntil, String leaseToken, int limit) {
+        Criteria claimable = new Criteria().andOperator(
+            Criteria.where("outbox").elemMatch(
+                Criteria.where("status").is(OutboxStatus.PENDING).and("nextAttemptAt").lte(now)),
+            new Criteria().orOperator(
+                Criteria.where("outboxLeaseUntil").is(null),
+                Criteria.where("outboxLeaseUntil").lt(now)));
+
+        Query candidates = Query.query(claimable).limit(limit);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, Booking.class).stream()
+            .map(Booking::getId)
+            .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Re-checks the lease in the same write, so a booking another node leased in between is skipped
+        Query lease = Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), claimable));
+        Update update = new Update()
+            .set("outboxLeaseUntil", leaseUntil)
+            .set("outboxLeaseToken", leaseToken);
+        if (mongoTemplate.updateMulti(lease, update, Booking.class).getModifiedCount() == 0) {
+            return List.of();
+        }
+        return mongoTemplate.find(Query.query(Criteria.where("outboxLeaseToken").is(leaseToken)), Booking.class);
+    }
+
+    @Override
+    public void removeOutboxEvent(String bookingId, String eventId) {
+        Update update = new Update().pull("outbox", Query.query(Criteria.where("eventId").is(eventId)).getQueryObject());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(bookingId)), update, Booking.class);
+    }
+
+    @Override
+    public long removeDoneOutboxEvents() {
+        Query query = Query.query(Criteria.where("outbox.status").is(OutboxStatus.DONE));
+        Update update = new Update().pull("outbox",
+            Query.query(Criteria.where("status").is(OutboxStatus.DONE.name())).getQueryObject());
+        return mongoTemplate.updateMulti(query, update, Booking.class).getModifiedCount();
+    }
+
+    @Override
+    public void markOutboxRetry(String bookingId, String eventId, OutboxStatus status, int attempts,
+                                LocalDateTime nextAttemptAt, String lastError) {
+        Update update = new Update()
+            .set("outbox.$.status", status)
+            .set("outbox.$.attempts", attempts)
+            .set("outbox.$.nextAttemptAt", nextAttemptAt)
+            .set("outbox.$.lastError", lastError);
+        mongoTemplate.updateFirst(eventQuery(bookingId, eventId), update, Booking.class);
+    }
+
+    @Override
+    public void releaseOutboxLease(String bookingId, String leaseToken) {
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(bookingId).and("outboxLeaseToken").is(leaseToken)),
+            new Update().unset("outboxLeaseUntil").unset("outboxLeaseToken"), Booking.class);
+    }
+
+    @Override
+    public Optional<Booking> transitionStatus(String bookingId, String driverId, BookingStatus from, BookingStatus to) {
+        Criteria criteria = Criteria.where("_id").is(bookingId).and("status").is(from);
+        if (driverId != null) {
+            criteria = criteria.and("driverId").is(driverId);
+        }
+        Update update = new Update()
+            .set("status", to)
+            .set("updatedAt", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            Query.query(criteria), update, FindAndModifyOptions.options().returnNew(true), Booking.class));
+    }
+
+    @Override
+    public boolean clearHospitalBed(String bookingId) {
+        Query query = Query.query(Criteria.where("_id").is(bookingId).and("hospitalBedHeld").is(true));
+        return mongoTemplate.updateFirst(query, new Update().set("hospitalBedHeld", false), Booking.class)
+            .getModifiedCount() > 0;
+    }
+
+    private static Query eventQuery(String bookingId, String eventId) {
+        return Query.query(Criteria.where("_id").is(bookingId).and("outbox.eventId").is(eventId));
+    }
+}
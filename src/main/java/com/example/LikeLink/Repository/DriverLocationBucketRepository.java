@@ -0,0 +1,17 @@
+package com.example.LikeLink.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.LikeLink.Enum.HistoryResolution;
+import com.example.LikeLink.Model.DriverLocationBucket;
+
+@Repository
+public interface DriverLocationBucketRepository extends MongoRepository<DriverLocationBucket, String>, DriverLocationBucketRepositoryCustom {
+
+    List<DriverLocationBucket> findByDriverIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(
+        String driverId, HistoryResolution resolution, Instant from, Instant to);
+}
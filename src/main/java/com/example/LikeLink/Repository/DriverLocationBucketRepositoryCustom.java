@@ -0,0 +1,26 @@
+package com.example.LikeLink.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.example.LikeLink.Enum.HistoryResolution;
+import com.example.LikeLink.Model.LocationPoint;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+public interface DriverLocationBucketRepositoryCustom {
+
+    // Upserts every bucket and $pushes its points in one unordered bulk write
+    void appendPoints(List<BucketAppend> appends);
+
+    @Getter
+    @AllArgsConstructor
+    class BucketAppend {
+        private final String driverId;
+        private final HistoryResolution resolution;
+        private final Instant bucketStart;
+        private final List<LocationPoint> points;
+        private final Instant expireAt; // null for buckets that never expire
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.LikeLink.Repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LikeLink.Model.DriverLocationBucket;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class DriverLocationBucketRepositoryImpl implements DriverLocationBucketRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void appendPoints(List<BucketAppend> appends) {
+        if (appends.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DriverLocationBucket.class);
+        for (BucketAppend append : appends) {
+            Query query = Query.query(Criteria.where("driverId").is(append.getDriverId())
+                .and("resolution").is(append.getResolution())
+                .and("bucketStart").is(append.getBucketStart()));
+            Update update = new Update()
+                .push("points").each(append.getPoints().toArray())
+                .inc("count", append.getPoints().size());
+            if (append.getExpireAt() != null) {
+                update.setOnInsert("expireAt", append.getExpireAt());
+            }
+            bulk.upsert(query, update);
+        }
+        bulk.execute();
+    }
+}
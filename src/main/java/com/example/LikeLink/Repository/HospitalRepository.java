@@ -6,7 +6,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.example.LikeLink.Model.Hospital;
 
-public interface HospitalRepository extends MongoRepository<Hospital, String> {
+public interface HospitalRepository extends MongoRepository<Hospital, String>, HospitalRepositoryCustom {
     boolean existsByUserId(String userId);
     Optional<Hospital> findByUserId(String userId);
 }
\ No newline at end of file
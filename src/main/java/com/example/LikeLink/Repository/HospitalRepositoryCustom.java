@@ -0,0 +1,18 @@
+package com.example.LikeLink.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface HospitalRepositoryCustom {
+
+    // Takes one emergency bed if any is free, returning the beds left
+    Optional<Integer> reserveEmergencyBed(String hospitalId);
+
+    // Gives one emergency bed back, never above the hospital's emergencyBeds
+    Optional<Integer> releaseEmergencyBed(String hospitalId);
+
+    // Starts the live counter at emergencyBeds for hospitals that do not have one yet
+    long initializeEmergencyBedCounters();
+
+    Map<String, Integer> findAvailableEmergencyBeds();
+}
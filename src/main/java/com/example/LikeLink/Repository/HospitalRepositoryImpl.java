@@ -0,0 +1,64 @@
+package com.example.LikeLink.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LikeLink.Model.Hospital;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class HospitalRepositoryImpl implements HospitalRepositoryCustom {
+
+    private static final String AVAILABLE = "availableEmergencyBeds";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Integer> reserveEmergencyBed(String hospitalId) {
+        Query query = Query.query(Criteria.where("_id").is(hospitalId).and(AVAILABLE).gt(0));
+        return incrementAvailable(query, -1);
+    }
+
+    @Override
+    public Optional<Integer> releaseEmergencyBed(String hospitalId) {
+        Query query = Query.query(Criteria.where("_id").is(hospitalId)
+            .andOperator(Criteria.expr(ComparisonOperators.Lt.valueOf(AVAILABLE).lessThan("emergencyBeds"))));
+        return incrementAvailable(query, 1);
+    }
+
+    @Override
+    public long initializeEmergencyBedCounters() {
+        Query query = Query.query(Criteria.where(AVAILABLE).exists(false));
+        AggregationUpdate update = AggregationUpdate.update().set(AVAILABLE).toValueOf("$emergencyBeds");
+        return mongoTemplate.updateMulti(query, update, Hospital.class).getModifiedCount();
+    }
+
+    @Override
+    public Map<String, Integer> findAvailableEmergencyBeds() {
+        Query query = new Query(Criteria.where(AVAILABLE).exists(true));
+        query.fields().include(AVAILABLE);
+        Map<String, Integer> available = new HashMap<>();
+        for (Hospital hospital : mongoTemplate.find(query, Hospital.class)) {
+            available.put(hospital.getId(), hospital.getAvailableEmergencyBeds());
+        }
+        return available;
+    }
+
+    // A single conditional $inc: the server serializes concurrent bookings on the same hospital
+    private Optional<Integer> incrementAvailable(Query query, int delta) {
+        query.fields().include(AVAILABLE);
+        Hospital updated = mongoTemplate.findAndModify(
+            query, new Update().inc(AVAILABLE, delta), FindAndModifyOptions.options().returnNew(true), Hospital.class);
+        return Optional.ofNullable(updated).map(Hospital::getAvailableEmergencyBeds);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.LikeLink.Repository;
+
+import java.time.Instant;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.LikeLink.Enum.IdempotencyStatus;
+import com.example.LikeLink.Model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends MongoRepository<IdempotencyRecord, String>,
+        IdempotencyRecordRepositoryCustom {
+
+    // Removes one specific claim, so a takeover never deletes a newer claim on the same key
+    long deleteByIdAndStatusAndRenewedAt(String id, IdempotencyStatus status, Instant renewedAt);
+}
@@ -0,0 +1,10 @@
+package com.example.LikeLink.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface IdempotencyRecordRepositoryCustom {
+
+    // Marks the still in-progress claims among ids as alive at renewedAt, returning how many were
+    long renewClaims(Collection<String> ids, Instant renewedAt);
+}
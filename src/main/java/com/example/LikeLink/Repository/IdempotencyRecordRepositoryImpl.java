@@ -0,0 +1,27 @@
+package com.example.LikeLink.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.LikeLink.Enum.IdempotencyStatus;
+import com.example.LikeLink.Model.IdempotencyRecord;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class IdempotencyRecordRepositoryImpl implements IdempotencyRecordRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public long renewClaims(Collection<String> ids, Instant renewedAt) {
+        Query query = Query.query(Criteria.where("_id").in(ids).and("status").is(IdempotencyStatus.IN_PROGRESS));
+        return mongoTemplate.updateMulti(query, new Update().set("renewedAt", renewedAt), IdempotencyRecord.class)
+            .getModifiedCount();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.LikeLink.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.example.LikeLink.Model.AmbulanceDriver;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking mirror of AmbulanceDriverRepository for the reactive tracking endpoints
+public interface ReactiveAmbulanceDriverRepository extends ReactiveMongoRepository<AmbulanceDriver, String> {
+
+    Mono<AmbulanceDriver> findByEmail(String email);
+
+    @Aggregation(pipeline = {
+        "{ $geoNear: { near: { type: 'Point', coordinates: [?0, ?1] }, key: 'currentLocation', distanceField: 'distanceMeters', maxDistance: ?2, spherical: true, query: { onDuty: { $ne: false }, claimedAt: null, locationUpdatedAt: { $gte: ?3 }, 'currentLocation.coordinates': { $ne: [0.0, 0.0] } } } }",
+        "{ $limit: ?4 }"
+    })
+    Flux<AmbulanceDriver> findNearestDrivers(double longitude, double latitude, double maxDistanceMeters,
+                                             LocalDateTime locatedSince, int limit);
+}
@@ -0,0 +1,20 @@
+package com.example.LikeLink.Repository;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.example.LikeLink.Enum.BookingStatus;
+import com.example.LikeLink.Model.Booking;
+
+import reactor.core.publisher.Flux;
+
+// Non-blocking mirror of BookingRepository for the reactive tracking endpoints
+public interface ReactiveBookingRepository extends ReactiveMongoRepository<Booking, String> {
+
+    Flux<Booking> findByDriverIdAndStatus(String driverId, BookingStatus status);
+
+    @Query("{'userId': ?0, 'status': { $nin: ['COMPLETED', 'CANCELLED'] }}")
+    Flux<Booking> findActiveBookingsByUserId(String userId);
+
+    Flux<Booking> findByStatus(BookingStatus status);
+}
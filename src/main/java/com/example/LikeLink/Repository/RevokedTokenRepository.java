@@ -0,0 +1,17 @@
+package com.example.LikeLink.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.LikeLink.Model.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpireAtAfter(Instant now);
+
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+}
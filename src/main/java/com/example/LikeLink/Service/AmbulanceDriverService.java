@@ -1,7 +1,6 @@
 package com.example.LikeLink.Service;
 
 import com.example.LikeLink.Repository.AmbulanceDriverRepository;
-import com.example.LikeLink.Repository.UserRepository;
 import com.example.LikeLink.Model.AmbulanceDriver;
 import com.example.LikeLink.Model.AmbulanceDriverRegistrationDto;
 import com.example.LikeLink.Model.Location;
@@ -11,13 +10,17 @@ import com.example.LikeLink.Exception.DriverAlreadyExistsException;
 import com.example.LikeLink.Exception.DriverNotFoundException;
 import com.example.LikeLink.Exception.UserNotFoundException;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -25,14 +28,28 @@ import java.util.Optional;
 public class AmbulanceDriverService {
 
     private final AmbulanceDriverRepository driverRepository;
-    private final UserRepository userRepository;
+    private final UserIdentityCache identityCache;
+    private final DriverPresenceRegistry presenceRegistry;
+    private final DriverLocationService driverLocationService;
+    private final LocationUpdateFilter locationUpdateFilter;
+
+    // Driver ids never change, so the per-ping email lookup only has to happen once per driver
+    private final Map<String, String> driverIdsByEmail = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyAvailability() {
+        long migrated = driverRepository.migrateLegacyAvailability();
+        if (migrated > 0) {
+            log.info("Moved {} drivers from the legacy available flag to onDuty/claimedAt", migrated);
+        }
+    }
 
     @Transactional
     public AmbulanceDriver registerDriver(String email, AmbulanceDriverRegistrationDto dto) {
         log.info("Processing registration for driver with email: {}", email);
 
         // Verify user exists
-        User user = userRepository.findByEmail(email)
+        User user = identityCache.findByEmail(email)
             .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
 
         if (driverRepository.existsByEmail(email)) {
@@ -80,7 +97,7 @@ public class AmbulanceDriverService {
         log.info("Updating driver profile for email: {}", email);
 
         // Verify user exists
-        User user = userRepository.findByEmail(email)
+        User user = identityCache.findByEmail(email)
             .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
 
         // Get existing driver
@@ -90,24 +107,9 @@ public class AmbulanceDriverService {
         // Validate unique fields excluding current driver's data
         validateUniqueFieldsForUpdate(dto, existingDriver);
 
-        // Update fields
-        existingDriver.setFullName(dto.getFullName());
-        existingDriver.setDateOfBirth(dto.getDateOfBirth());
-        existingDriver.setPhoneNumber(dto.getPhoneNumber());
-        existingDriver.setCurrentAddress(dto.getCurrentAddress());
-        existingDriver.setDriversLicenseNumber(dto.getDriversLicenseNumber());
-        existingDriver.setLicenseType(dto.getLicenseType());
-        existingDriver.setExperienceWithEmergencyVehicle(dto.isExperienceWithEmergencyVehicle());
-        existingDriver.setYearsOfEmergencyExperience(dto.getYearsOfEmergencyExperience());
-        existingDriver.setVehicleRegistrationNumber(dto.getVehicleRegistrationNumber());
-        existingDriver.setHasAirConditioning(dto.isHasAirConditioning());
-        existingDriver.setHasOxygenCylinderHolder(dto.isHasOxygenCylinderHolder());
-        existingDriver.setHasStretcher(dto.isHasStretcher());
-        existingDriver.setInsurancePolicyNumber(dto.getInsurancePolicyNumber());
-        existingDriver.setInsuranceExpiryDate(dto.getInsuranceExpiryDate());
-
         log.info("Updating driver profile for: {}", dto.getFullName());
-        return driverRepository.save(existingDriver);
+        return driverRepository.updateProfile(existingDriver.getId(), dto)
+            .orElseThrow(() -> new DriverNotFoundException("Driver not found for email: " + email));
     }
 
     private void validateUniqueFieldsForUpdate(AmbulanceDriverRegistrationDto dto, AmbulanceDriver existingDriver) {
@@ -127,29 +129,27 @@ public class AmbulanceDriverService {
     }
 
     @Transactional
-    public void updateDriverStatus(String email, boolean available) {
-        AmbulanceDriver driver = getDriverByEmail(email);
-        driverRepository.save(driver);
-        log.info("Updated status for driver: {} to: {}", email, available);
+    public void updateDriverStatus(String email, boolean onDuty) {
+        String driverId = driverIdsByEmail.computeIfAbsent(email, key -> getDriverByEmail(key).getId());
+        driverRepository.setOnDuty(driverId, onDuty);
+        if (!onDuty) {
+            // Drop out of the spatial index now rather than after the presence timeout
+            presenceRegistry.markOffline(driverId);
+            locationUpdateFilter.forget(driverId);
+        }
+        log.info("Updated duty status for driver: {} to: {}", email, onDuty);
     }
 
-    @Transactional
+    // The canonical ping path lives in DriverLocationService, this only turns the email into the id
     public void updateDriverLocation(String email, Location location) {
-        AmbulanceDriver driver = getDriverByEmail(email);
-        driver.setCurrentLocation(location);
-        driverRepository.save(driver);
-        log.info("Updated location for driver: {} to: {}", email, location);
+        String driverId = driverIdsByEmail.computeIfAbsent(email, key -> getDriverByEmail(key).getId());
+        driverLocationService.updateDriverLocation(driverId, location.getLatitude(), location.getLongitude());
     }
 
-
-
     @Transactional
     public AmbulanceDriver verifyDriver(String licenseNumber, VerificationStatus status, String comment) {
-        AmbulanceDriver driver = driverRepository.findByDriversLicenseNumber(licenseNumber)
+        AmbulanceDriver updatedDriver = driverRepository.updateVerification(licenseNumber, status, comment)
                 .orElseThrow(() -> new DriverNotFoundException("Driver not found with license: " + licenseNumber));
-
-        
-        AmbulanceDriver updatedDriver = driverRepository.save(driver);
         log.info("Updated verification status for driver: {} to: {}", licenseNumber, status);
         return updatedDriver;
     }
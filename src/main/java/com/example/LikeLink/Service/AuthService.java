@@ -14,6 +14,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.example.LikeLink.Config.Security.Jwt.JwtTokenProvider;
+import com.example.LikeLink.Config.Security.Jwt.TokenRevocationList;
+import com.example.LikeLink.Config.Security.Jwt.VerifiedTokenCache;
 import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
 import com.example.LikeLink.Model.User;
 import com.example.LikeLink.Repository.UserRepository;
@@ -22,6 +24,8 @@ import com.example.LikeLink.dto.request.SignupRequest;
 import com.example.LikeLink.dto.response.JwtResponse;
 import com.example.LikeLink.dto.response.MessageResponse;
 
+import io.jsonwebtoken.Claims;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -31,6 +35,9 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final RefreshTokenService refreshTokenService;
+    private final VerifiedTokenCache tokenCache;
+    private final UserIdentityCache identityCache;
+    private final TokenRevocationList revocationList;
 
     public ResponseEntity<?> registerUser(SignupRequest signupRequest) {
         if (userRepository.existsByEmail(signupRequest.getEmail())) {
@@ -45,13 +52,13 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
         user.setRole(signupRequest.getRole());
 
-        userRepository.save(user);
+        identityCache.save(user);
 
         return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
     } 
     
     public String getEmailByUserId(String userId) { 
-    	Optional<User> user = userRepository.findById(userId); 
+    	Optional<User> user = identityCache.findById(userId); 
     	if(user.isEmpty()) return null; 
     	return user.get().getEmail();
     }
@@ -83,4 +90,19 @@ public class AuthService {
                 .role(userDetails.getRole())
                 .build();
     }
+
+    // accessToken is the bearer token the logout was sent with, if any; it stops working everywhere
+    public void logout(String userId, String accessToken) {
+        refreshTokenService.deleteByUserId(userId);
+        if (accessToken != null) {
+            Claims claims = jwtTokenProvider.parseClaims(accessToken);
+            if (claims != null) {
+                revocationList.revoke(accessToken, claims);
+            }
+            tokenCache.evict(accessToken);
+        }
+        if (userId != null) {
+            tokenCache.evictUser(userId);
+        }
+    }
 }
\ No newline at end of file
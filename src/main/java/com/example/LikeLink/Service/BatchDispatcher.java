@@ -0,0 +1,151 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Model.AmbulanceDriver;
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Repository.AmbulanceDriverRepository;
+import com.example.LikeLink.Util.AssignmentSolver;
+import com.example.LikeLink.Util.GeoDistance;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in batch dispatch for bursts of bookings.
+ *
+ * Requests are collected per region for a short window, then all pending pickups in the region
+ * are matched against the free drivers around them with a minimum-total-distance assignment
+ * instead of each request greedily taking its own nearest driver. Requests the batch cannot
+ * serve complete with null and fall back to greedy dispatch in BookingService.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BatchDispatcher {
+
+    private static final double REGION_SIZE_DEG = 0.25; // ~28 km, wider than the largest search ring
+
+    private final DriverLocationService driverLocationService;
+    private final AmbulanceDriverRepository driverRepository;
+    @Qualifier("dispatchScheduler")
+    private final ScheduledExecutorService scheduler;
+
+    @Value("${dispatch.batch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${dispatch.batch.window-ms:300}")
+    private long windowMs;
+
+    private final Map<Long, List<PendingRequest>> pending = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    // Completes with the claimed driver, or null when this batch could not serve the pickup
+    public CompletableFuture<AmbulanceDriver> dispatch(Location pickupLocation) {
+        PendingRequest request = new PendingRequest(pickupLocation, new CompletableFuture<>());
+        long region = regionOf(pickupLocation);
+        boolean[] opened = {false};
+
+        pending.compute(region, (key, batch) -> {
+            List<PendingRequest> requests = batch;
+            if (requests == null) {
+                requests = new ArrayList<>();
+                opened[0] = true;
+            }
+            requests.add(request);
+            return requests;
+        });
+
+        // The first request in a region opens its window
+        if (opened[0]) {
+            scheduler.schedule(() -> flush(region), windowMs, TimeUnit.MILLISECONDS);
+        }
+        return request.getResult();
+    }
+
+    private void flush(long region) {
+        List<PendingRequest> batch = pending.remove(region);
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            List<AmbulanceDriver> drivers = driverLocationService.findNearbyDrivers(
+                batch.stream().map(PendingRequest::getPickupLocation).collect(Collectors.toList()))
+                .stream()
+                .filter(AmbulanceDriver::isDispatchable)
+                .collect(Collectors.toList());
+
+            int[] assignment = AssignmentSolver.solve(costMatrix(batch, drivers));
+
+            int served = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                AmbulanceDriver claimed = null;
+                if (assignment[i] >= 0) {
+                    // A greedy booking outside the batch may still have taken this driver
+                    claimed = driverRepository.claimDriver(drivers.get(assignment[i]).getId()).orElse(null);
+                }
+                if (claimed != null) {
+                    served++;
+                }
+                batch.get(i).getResult().complete(claimed);
+            }
+            log.info("Batch dispatch in region {}: {} requests, {} drivers, {} assigned in {}ms",
+                region, batch.size(), drivers.size(), served, (System.nanoTime() - started) / 1_000_000);
+
+        } catch (Exception e) {
+            log.error("Batch dispatch failed for region {}: {}", region, e.getMessage(), e);
+            batch.forEach(request -> request.getResult().complete(null));
+        }
+    }
+
+    private double[][] costMatrix(List<PendingRequest> batch, List<AmbulanceDriver> drivers) {
+        double[] lats = new double[drivers.size()];
+        double[] lons = new double[drivers.size()];
+        for (int j = 0; j < drivers.size(); j++) {
+            lats[j] = drivers.get(j).getCurrentLocation().getLatitude();
+            lons[j] = drivers.get(j).getCurrentLocation().getLongitude();
+        }
+
+        double[][] cost = new double[batch.size()][drivers.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Location pickup = batch.get(i).getPickupLocation();
+            GeoDistance.from(pickup.getLatitude(), pickup.getLongitude())
+                .distancesKm(lats, lons, drivers.size(), cost[i], GeoDistance.Precision.FAST);
+        }
+        return cost;
+    }
+
+    private static long regionOf(Location location) {
+        long lat = (long) Math.floor((location.getLatitude() + 90.0) / REGION_SIZE_DEG);
+        long lon = (long) Math.floor((location.getLongitude() + 180.0) / REGION_SIZE_DEG);
+        return (lat << 32) | lon;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingRequest {
+        private final Location pickupLocation;
+        private final CompletableFuture<AmbulanceDriver> result;
+    }
+}
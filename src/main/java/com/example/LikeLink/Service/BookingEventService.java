@@ -0,0 +1,258 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.LikeLink.Event.BookingStatusChangedEvent;
+import com.example.LikeLink.Event.DriverLocationChangedEvent;
+import com.example.LikeLink.Exception.ResourceNotFoundException;
+import com.example.LikeLink.Model.Booking;
+import com.example.LikeLink.Repository.BookingRepository;
+import com.example.LikeLink.dto.response.BookingStatusUpdate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events for booking status transitions and driver ETA changes.
+ *
+ * Each subscriber has a small bounded buffer drained by the sseExecutor, so a slow client
+ * only ever loses its own oldest events and never blocks the booking or location paths.
+ * A stuck write only holds its own sender thread and is interrupted after SEND_TIMEOUT_MS.
+ * Heartbeats detect dead connections; idle or finished streams are cleaned up.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookingEventService {
+
+    private static final int BUFFER_SIZE = 16;
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final long IDLE_TIMEOUT_MS = 2 * 60 * 1000L;
+    private static final long SEND_TIMEOUT_MS = 10 * 1000L;
+
+    private final BookingRepository bookingRepository;
+    private final DriverLocationService driverLocationService;
+
+    private final Map<String, WatchedBooking> watched = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> watchedByDriver = new ConcurrentHashMap<>();
+    @Qualifier("sseExecutor")
+    private final ExecutorService sender;
+
+    public SseEmitter subscribe(String bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+            .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter);
+
+        WatchedBooking entry = watched.compute(bookingId, (id, existing) -> {
+            WatchedBooking watchedBooking = existing != null ? existing : new WatchedBooking(booking);
+            watchedBooking.subscribers.add(subscriber);
+            return watchedBooking;
+        });
+        if (booking.getDriverId() != null) {
+            watchedByDriver.computeIfAbsent(booking.getDriverId(), id -> ConcurrentHashMap.newKeySet()).add(bookingId);
+        }
+
+        emitter.onCompletion(() -> remove(bookingId, subscriber));
+        emitter.onTimeout(() -> remove(bookingId, subscriber));
+        emitter.onError(error -> remove(bookingId, subscriber));
+
+        subscriber.offer(SseEmitter.event().name("status").data(update(entry, booking)));
+        subscriber.drain(sender);
+        if (!booking.isActive()) {
+            subscriber.completeAfterDrain(sender);
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.getBooking();
+        WatchedBooking entry = watched.get(booking.getId());
+        if (entry == null) {
+            return;
+        }
+        entry.booking = booking;
+        BookingStatusUpdate update = update(entry, booking);
+        broadcast(entry, () -> SseEmitter.event().name("status").data(update));
+
+        if (!booking.isActive()) {
+            entry.subscribers.forEach(subscriber -> subscriber.completeAfterDrain(sender));
+        }
+    }
+
+    @EventListener
+    public void onDriverLocationChanged(DriverLocationChangedEvent event) {
+        Set<String> bookingIds = watchedByDriver.get(event.getDriverId());
+        if (bookingIds == null) {
+            return;
+        }
+        for (String bookingId : bookingIds) {
+            WatchedBooking entry = watched.get(bookingId);
+            if (entry == null || !entry.booking.isActive()) {
+                continue;
+            }
+            int eta = driverLocationService.calculateEstimatedTime(event.getLocation(), entry.booking.getPickupLocation());
+            // Only whole-minute changes are worth a push
+            if (entry.etaMinutes == null || entry.etaMinutes != eta) {
+                entry.etaMinutes = eta;
+                BookingStatusUpdate update = update(entry, entry.booking);
+                broadcast(entry, () -> SseEmitter.event().name("eta").data(update));
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = 15000)
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        watched.forEach((bookingId, entry) -> entry.subscribers.forEach(subscriber -> {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > SEND_TIMEOUT_MS) {
+                // One write has been blocked on the socket for too long, interrupt it and drop the client
+                log.debug("SSE write for booking {} stuck for {} ms, dropping subscriber", bookingId, now - sendingSince);
+                subscriber.abort();
+                remove(bookingId, subscriber);
+                return;
+            }
+            if (now - subscriber.lastSent > IDLE_TIMEOUT_MS) {
+                // Nothing got through for too long, the client is gone or hopelessly slow
+                subscriber.emitter.complete();
+                remove(bookingId, subscriber);
+                return;
+            }
+            subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            subscriber.drain(sender);
+        }));
+    }
+
+    // Builders are stateful once sent, so every subscriber gets its own
+    private void broadcast(WatchedBooking entry, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : entry.subscribers) {
+            subscriber.offer(event.get());
+            subscriber.drain(sender);
+        }
+    }
+
+    private void remove(String bookingId, Subscriber subscriber) {
+        watched.computeIfPresent(bookingId, (id, entry) -> {
+            entry.subscribers.remove(subscriber);
+            if (!entry.subscribers.isEmpty()) {
+                return entry;
+            }
+            String driverId = entry.booking.getDriverId();
+            if (driverId != null) {
+                watchedByDriver.computeIfPresent(driverId, (key, bookings) -> {
+                    bookings.remove(bookingId);
+                    return bookings.isEmpty() ? null : bookings;
+                });
+            }
+            return null;
+        });
+    }
+
+    private static BookingStatusUpdate update(WatchedBooking entry, Booking booking) {
+        return new BookingStatusUpdate(booking.getId(), booking.getStatus(), booking.getDriverId(),
+            entry.etaMinutes, System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watched.values().forEach(entry -> entry.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private static class WatchedBooking {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile Booking booking;
+        private volatile Integer etaMinutes;
+
+        WatchedBooking(Booking booking) {
+            this.booking = booking;
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean completeWhenDrained;
+        private volatile long lastSent = System.currentTimeMillis();
+        private volatile long sendingSince;
+        private volatile Thread sendingThread;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            // Full buffer: drop the oldest event, the newest status/ETA is what matters
+            while (!buffer.offer(event)) {
+                buffer.poll();
+            }
+        }
+
+        void abort() {
+            buffer.clear();
+            // Not emitter.complete(), that waits for the emitter's write lock held by the stuck send;
+            // the interrupted send fails and the drain loop completes the emitter with the error
+            Thread thread = sendingThread;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        void completeAfterDrain(ExecutorService sender) {
+            completeWhenDrained = true;
+            drain(sender);
+        }
+
+        void drain(ExecutorService sender) {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            sender.execute(() -> {
+                sendingThread = Thread.currentThread();
+                try {
+                    SseEmitter.SseEventBuilder event;
+                    while ((event = buffer.poll()) != null) {
+                        sendingSince = System.currentTimeMillis();
+                        emitter.send(event);
+                        sendingSince = 0;
+                        lastSent = System.currentTimeMillis();
+                    }
+                    if (completeWhenDrained) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping SSE subscriber: {}", e.getMessage());
+                    emitter.completeWithError(e);
+                } finally {
+                    sendingSince = 0;
+                    sendingThread = null;
+                    // Clear an abort() that raced with the end of the write, the thread goes back to the pool
+                    Thread.interrupted();
+                    draining.set(false);
+                }
+                // Events offered while we were finishing up
+                if (!buffer.isEmpty()) {
+                    drain(sender);
+                }
+            });
+        }
+    }
+}
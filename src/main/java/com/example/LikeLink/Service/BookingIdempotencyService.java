@@ -0,0 +1,250 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Enum.IdempotencyStatus;
+import com.example.LikeLink.Exception.BookingException;
+import com.example.LikeLink.Model.IdempotencyRecord;
+import com.example.LikeLink.Repository.IdempotencyRecordRepository;
+import com.example.LikeLink.dto.request.BookingRequest;
+import com.example.LikeLink.dto.response.BookingResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a booking request at most once per Idempotency-Key.
+ *
+ * Keys are scoped to the authenticated user, never to the user id in the request body, and
+ * claimed with an insert into a TTL collection, so
+ * the first request on any node wins. Repeats on the same node wait on the in-flight future;
+ * repeats that land on another node poll the record until it completes. Only bookings that
+ * assigned a driver are remembered: a failed attempt dispatched nothing, so its key is released
+ * and a retry runs the flow again. The owner renews its claim every booking.idempotency.renew-ms
+ * while the booking runs; a claim not renewed for booking.idempotency.wait-ms is treated as
+ * abandoned by a node that died and is taken over. The key is also stored on the booking itself,
+ * so taking over a claim whose booking was already created replays that booking instead of
+ * dispatching a second ambulance.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookingIdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+    private static final int COMPLETION_ATTEMPTS = 3;
+
+    private final BookingService bookingService;
+    private final IdempotencyRecordRepository recordRepository;
+
+    @Value("${booking.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${booking.idempotency.wait-ms:30000}")
+    private long waitMs;
+
+    @Value("${booking.idempotency.poll-ms:100}")
+    private long pollMs;
+
+    private final Map<String, CompletableFuture<BookingResponse>> inFlight = new ConcurrentHashMap<>();
+    // Claims this node holds and keeps alive
+    private final Set<String> owned = ConcurrentHashMap.newKeySet();
+
+    // principalUserId is the authenticated caller; a body naming anyone else is rejected
+    public Outcome process(String idempotencyKey, BookingRequest request, String principalUserId) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BookingException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        if (!principalUserId.equals(request.getUserId())) {
+            throw userMismatch();
+        }
+        String recordId = principalUserId + ":" + idempotencyKey;
+
+        CompletableFuture<BookingResponse> created = new CompletableFuture<>();
+        CompletableFuture<BookingResponse> running = inFlight.putIfAbsent(recordId, created);
+        if (running != null) {
+            log.info("Booking request with key {} is already running, waiting for it", recordId);
+            return new Outcome(awaitLocal(running), true);
+        }
+
+        try {
+            Optional<BookingResponse> previous = claim(recordId);
+            if (previous.isPresent()) {
+                created.complete(previous.get());
+                return new Outcome(previous.get(), true);
+            }
+
+            BookingResponse response = run(recordId, request);
+            created.complete(response);
+            return new Outcome(response, false);
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            owned.remove(recordId);
+            inFlight.remove(recordId, created);
+        }
+    }
+
+    // Well inside wait-ms, so a slow booking is never mistaken for an abandoned one
+    @Scheduled(fixedDelayString = "${booking.idempotency.renew-ms:10000}")
+    public void renewClaims() {
+        if (owned.isEmpty()) {
+            return;
+        }
+        try {
+            recordRepository.renewClaims(Set.copyOf(owned), Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Could not renew {} idempotency claims: {}", owned.size(), e.getMessage());
+        }
+    }
+
+    // Empty when this call owns the key, otherwise the response of the request that does
+    private Optional<BookingResponse> claim(String recordId) {
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (true) {
+            Instant now = Instant.now();
+            try {
+                recordRepository.insert(new IdempotencyRecord(recordId, IdempotencyStatus.IN_PROGRESS, null,
+                    now, now, now.plusSeconds(ttlHours * 3600)));
+                owned.add(recordId);
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(recordId);
+                if (existing.isPresent() && existing.get().getStatus() == IdempotencyStatus.COMPLETED) {
+                    log.info("Replaying booking response for key {}", recordId);
+                    return Optional.of(existing.get().getResponse());
+                }
+                if (existing.isPresent() && lastRenewed(existing.get()).isBefore(now.minusMillis(waitMs))) {
+                    // The node that claimed it stopped renewing, free the key and claim it on the next pass
+                    log.warn("Taking over abandoned booking request with key {}", recordId);
+                    recordRepository.deleteByIdAndStatusAndRenewedAt(recordId, IdempotencyStatus.IN_PROGRESS,
+                        existing.get().getRenewedAt());
+                    continue;
+                }
+                // Still running on another node, or released meanwhile and claimable on the next pass
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw inProgress();
+            }
+            sleep(pollMs);
+        }
+    }
+
+    private BookingResponse run(String recordId, BookingRequest request) {
+        // A previous owner may have created the booking and died, or failed to record it, before completing the claim
+        Optional<BookingResponse> existing = bookingService.findByIdempotencyKey(recordId);
+        if (existing.isPresent()) {
+            log.info("Booking for key {} already exists, completing its claim", recordId);
+            complete(recordId, existing.get());
+            return existing.get();
+        }
+
+        BookingResponse response;
+        try {
+            response = bookingService.processBooking(request, recordId);
+        } catch (RuntimeException e) {
+            recordRepository.deleteById(recordId);
+            throw e;
+        }
+
+        if (response.getBookingId() == null) {
+            recordRepository.deleteById(recordId);
+            return response;
+        }
+
+        complete(recordId, response);
+        return response;
+    }
+
+    // The booking already exists and carries the key, so a lost completion only costs a later retry a lookup
+    private void complete(String recordId, BookingResponse response) {
+        BookingResponse stored = BookingResponse.builder()
+            .success(response.isSuccess())
+            .message(response.getMessage())
+            .bookingId(response.getBookingId())
+            .status(response.getStatus())
+            .driverId(response.getDriverId())
+            .driverLocation(response.getDriverLocation())
+            .build();
+        for (int attempt = 1; ; attempt++) {
+            Instant now = Instant.now();
+            try {
+                recordRepository.save(new IdempotencyRecord(recordId, IdempotencyStatus.COMPLETED, stored,
+                    now, now, now.plusSeconds(ttlHours * 3600)));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= COMPLETION_ATTEMPTS) {
+                    log.error("Could not complete idempotency claim {} for booking {}: {}",
+                        recordId, response.getBookingId(), e.getMessage());
+                    return;
+                }
+                log.warn("Completing idempotency claim {} failed, retrying: {}", recordId, e.getMessage());
+                sleep(pollMs * attempt);
+            }
+        }
+    }
+
+    // Records written before renewals existed only carry createdAt
+    private static Instant lastRenewed(IdempotencyRecord record) {
+        return record.getRenewedAt() != null ? record.getRenewedAt() : record.getCreatedAt();
+    }
+
+    private BookingResponse awaitLocal(CompletableFuture<BookingResponse> running) {
+        try {
+            return running.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingException("Interrupted while waiting for the original booking request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BookingException("Original booking request failed", e.getCause());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingException("Interrupted while waiting for the original booking request", e);
+        }
+    }
+
+    private static BookingException inProgress() {
+        return new BookingException("A booking request with this Idempotency-Key is still being processed",
+            "IDEMPOTENCY_IN_PROGRESS", HttpStatus.CONFLICT);
+    }
+
+    public static BookingException userMismatch() {
+        return new BookingException("Bookings can only be requested for the authenticated user",
+            "USER_MISMATCH", HttpStatus.FORBIDDEN);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Outcome {
+        private final BookingResponse response;
+        private final boolean replayed;
+    }
+}
@@ -1,34 +1,44 @@
 package com.example.LikeLink.Service;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.LikeLink.Enum.BookingStatus;
+import com.example.LikeLink.Enum.HistoryResolution;
+import com.example.LikeLink.Enum.OutboxEventType;
+import com.example.LikeLink.Event.BookingStatusChangedEvent;
 import com.example.LikeLink.Exception.BookingException;
 import com.example.LikeLink.Exception.ResourceNotFoundException;
 import com.example.LikeLink.Model.AmbulanceDriver;
-import com.example.LikeLink.Model.BloodRequest;
 import com.example.LikeLink.Model.Booking;
 import com.example.LikeLink.Model.Hospital;
-import com.example.LikeLink.Model.IncomingPatient;
 import com.example.LikeLink.Model.Location;
-import com.example.LikeLink.Model.Patient;
-import com.example.LikeLink.Model.User;
+import com.example.LikeLink.Model.LocationFix;
+import com.example.LikeLink.Model.LocationPoint;
+import com.example.LikeLink.Model.OutboxEvent;
 import com.example.LikeLink.Repository.AmbulanceDriverRepository;
-import com.example.LikeLink.Repository.BloodRequestRepository;
 import com.example.LikeLink.Repository.BookingRepository;
-import com.example.LikeLink.Repository.HospitalRepository;
-import com.example.LikeLink.Repository.IncomingPatientRepository;
-import com.example.LikeLink.Repository.PatientRepository;
-import com.example.LikeLink.Repository.UserRepository;
+import com.example.LikeLink.Util.GeoDistance;
+import com.example.LikeLink.Util.StageTimings;
 import com.example.LikeLink.dto.request.BookingRequest;
 import com.example.LikeLink.dto.response.BookingResponse;
 import com.example.LikeLink.dto.response.HospitalResponse;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
@@ -41,14 +51,16 @@ public class BookingService {
 
     private final BookingRepository bookingRepository;
     private final DriverLocationService driverLocationService;
-    private final HospitalRepository hospitalRepository;
+    private final HospitalCapacityService capacityService;
     private final AmbulanceDriverRepository driverRepository;
-    private final IncomingPatientRepository incomingPatientRepository; 
-    private final UserRepository userRepository; 
-    private final AuthService authService; 
-    private final PatientRepository patientRepository;
-    private final BloodRequestRepository bloodRequestRepository;
-    private static final double SEARCH_RADIUS_KM = 5.0;
+    private final BatchDispatcher batchDispatcher;
+    private final DriverPresenceRegistry presenceRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LocationHistoryService locationHistoryService;
+    private final EtaCache etaCache;
+    @Qualifier("bookingExecutor")
+    private final ExecutorService bookingExecutor;
+    private static final long BATCH_GRACE_MS = 2000;
     
     
     private List<AmbulanceDriver> findNearbyDrivers(Location pickupLocation) {
@@ -64,7 +76,8 @@ public class BookingService {
             );
             
             // Filter out drivers that are not available
-            List<AmbulanceDriver> availableDrivers = drivers.stream()  // Add this field to your AmbulanceDriver model
+            List<AmbulanceDriver> availableDrivers = drivers.stream()
+                .filter(AmbulanceDriver::isDispatchable)
                 .collect(Collectors.toList());
 
             log.info("Found {} total drivers, {} are available", 
@@ -83,41 +96,18 @@ public class BookingService {
             log.info("Finding nearest hospital for location: {}, {}", 
                 userLocation.getLatitude(), userLocation.getLongitude());
 
-            List<Hospital> allHospitals = hospitalRepository.findAll();
-            if (allHospitals.isEmpty()) {
+            List<HospitalDirectory.NearbyHospital> ranked = capacityService.rank(
+                userLocation.getLatitude(), userLocation.getLongitude());
+            if (ranked.isEmpty()) {
                 throw new BookingException("No hospitals found in the system");
             }
-
-            Hospital nearestHospital = allHospitals.stream()
-                .min((h1, h2) -> {
-                    double dist1 = calculateDistance(
-                        h1.getLatitude(),
-                        h1.getLongitude(),
-                        userLocation.getLatitude(),
-                        userLocation.getLongitude()
-                    );
-                    double dist2 = calculateDistance(
-                        h2.getLatitude(),
-                        h2.getLongitude(),
-                        userLocation.getLatitude(),
-                        userLocation.getLongitude()
-                    );
-                    return Double.compare(dist1, dist2);
-                })
-                .orElseThrow(() -> new BookingException("No hospital found"));
-
-
-            // Convert to HospitalResponse
-            HospitalResponse response = new HospitalResponse();
-            response.setHospitalId(nearestHospital.getId());
-            response.setHospitalName(nearestHospital.getHospitalName());
-            response.setLatitude(nearestHospital.getLatitude());
-            response.setLongitude(nearestHospital.getLongitude());
+            HospitalDirectory.NearbyHospital nearest = ranked.get(0);
+            Hospital nearestHospital = nearest.getHospital();
 
             log.info("Found nearest hospital: {} at distance: {}km", 
-                nearestHospital.getHospitalName());
+                nearestHospital.getHospitalName(), nearest.getDistanceKm());
 
-            return response;
+            return toHospitalResponse(nearestHospital);
 
         } catch (Exception e) {
             log.error("Error finding nearest hospital: {}", e.getMessage(), e);
@@ -126,22 +116,38 @@ public class BookingService {
     }
    
 
+    private static HospitalResponse toHospitalResponse(Hospital hospital) {
+        HospitalResponse response = new HospitalResponse();
+        response.setHospitalId(hospital.getId());
+        response.setHospitalName(hospital.getHospitalName());
+        response.setLatitude(hospital.getLatitude());
+        response.setLongitude(hospital.getLongitude());
+        return response;
+    }
+
     @Transactional
     public BookingResponse processBooking(BookingRequest request) {
+        return processBooking(request, null);
+    }
+
+    // idempotencyKey goes into the booking insert itself, so findByIdempotencyKey sees it as soon as the booking exists
+    @Transactional
+    public BookingResponse processBooking(BookingRequest request, String idempotencyKey) {
+        AmbulanceDriver nearestDriver = null;
+        String heldHospitalId = null;
+        Booking booking = null;
+        StageTimings timings = new StageTimings();
         try {
             log.info("Processing booking request for user: {}", request.getUserId());
-          
-
-            // First find nearest hospital
-            HospitalResponse nearestHospital = findNearestHospital(request.getPickupLocation());
-            log.info("Found nearest hospital: {}", nearestHospital.getHospitalName());
 
-            // Find nearby drivers BEFORE creating booking
-            List<AmbulanceDriver> nearbyDrivers = findNearbyDrivers(request.getPickupLocation());
-            log.info("Found {} nearby drivers", nearbyDrivers.size());
+            // Ranking hospitals does not depend on the driver, run it while dispatching
+            Location pickup = request.getPickupLocation();
+            CompletableFuture<List<HospitalDirectory.NearbyHospital>> hospitalLookup = CompletableFuture.supplyAsync(
+                timings.time("hospital", () -> capacityService.rank(pickup.getLatitude(), pickup.getLongitude())),
+                bookingExecutor);
 
-            if (nearbyDrivers.isEmpty()) {
-                log.warn("No drivers found within {}km radius", SEARCH_RADIUS_KM);
+            nearestDriver = timings.run("driver", () -> dispatchDriver(request.getPickupLocation()));
+            if (nearestDriver == null) {
                 return new BookingResponse(
                     "No drivers available",
                     null,
@@ -150,56 +156,62 @@ public class BookingService {
                     null
                 );
             }
-
-            // Find nearest driver
-            AmbulanceDriver nearestDriver = findNearestDriver(nearbyDrivers, request.getPickupLocation());
             log.info("Selected nearest driver: {}", nearestDriver.getId());
 
+            List<HospitalDirectory.NearbyHospital> rankedHospitals = await(hospitalLookup);
+            if (rankedHospitals.isEmpty()) {
+                throw new BookingException("No hospitals found in the system");
+            }
+            // Only take a bed once there is an ambulance; when every ER is full go to the best ranked one anyway
+            Optional<HospitalDirectory.NearbyHospital> reserved = timings.run("hospitalBed",
+                () -> capacityService.reserve(rankedHospitals));
+            HospitalResponse nearestHospital = toHospitalResponse(
+                reserved.orElse(rankedHospitals.get(0)).getHospital());
+            if (reserved.isPresent()) {
+                heldHospitalId = nearestHospital.getHospitalId();
+            } else {
+                log.warn("No emergency beds free near pickup, sending patient to {}", nearestHospital.getHospitalName());
+            }
+            log.info("Found nearest hospital: {}", nearestHospital.getHospitalName());
+
             // Create and save the booking
-            Booking booking = new Booking(); 
-            booking.setUserId(request.getUserId()); 
-            booking.setDriverId(nearestDriver.getId()); 
-            booking.setPickupLocation(request.getPickupLocation());
-            booking.setDestinationLocation(request.getDestinationLocation()); 
-            booking.setStatus(BookingStatus.ASSIGNED); 
-
-            booking = bookingRepository.save(booking);
+            Booking newBooking = new Booking(); 
+            newBooking.setUserId(request.getUserId()); 
+            newBooking.setIdempotencyKey(idempotencyKey);
+            newBooking.setDriverId(nearestDriver.getId()); 
+            newBooking.setPickupLocation(request.getPickupLocation());
+            newBooking.setDestinationLocation(request.getDestinationLocation()); 
+            newBooking.setHospitalId(nearestHospital.getHospitalId());
+            newBooking.setHospitalBedHeld(heldHospitalId != null);
+            newBooking.setStatus(BookingStatus.ASSIGNED); 
+            newBooking.setCreatedAt(LocalDateTime.now());
+            newBooking.setUpdatedAt(newBooking.getCreatedAt());
+
+            // Hospital-side records go out through the outbox, saved in the same write as the booking
+            newBooking.getOutbox().add(OutboxEvent.pending(OutboxEventType.INCOMING_PATIENT,
+                request.getUserId(), nearestHospital.getHospitalId(), newBooking.getCreatedAt()));
+            newBooking.getOutbox().add(OutboxEvent.pending(OutboxEventType.BLOOD_REQUEST,
+                request.getUserId(), nearestHospital.getHospitalId(), newBooking.getCreatedAt()));
+
+            booking = timings.run("booking", () -> bookingRepository.insert(newBooking));
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(booking));
             log.info("Created booking with ID: {}", booking.getId());
-            
-            IncomingPatient incomingPatient = new IncomingPatient();
-            incomingPatient.setHospitalId(nearestHospital.getHospitalId());  // Set ID as hospital ID
-            incomingPatient.setUserId(request.getUserId());
-            incomingPatientRepository.save(incomingPatient); 
-            
-            String userEmail = authService.getEmailByUserId(request.getUserId());  
-            
-            Optional<Patient> patient = patientRepository.findByEmail(userEmail); 
-            if(!patient.isEmpty()) { 
-            	Hospital hospital = hospitalRepository.findById(nearestHospital.getHospitalId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Hospital not found"));
-
-
-                    BloodRequest brequest = BloodRequest.builder()
-                        .hospitalId(hospital.getId())
-                        .hospitalName(hospital.getHospitalName())
-                        .phoneNumber(hospital.getPhoneNumber())
-                        .address(hospital.getAddress())
-                        .bloodType(patient.get().getBloodType().toString())
-                        .status("PENDING")
-                        .build();
-
-                    bloodRequestRepository.save(brequest);
-            }
-            return new BookingResponse(
-                "Driver assigned successfully",
-                booking.getId(),
-                nearestDriver.getId(),
-                "ASSIGNED",
-                nearestDriver.getId()
-            );
+
+            return assignedResponse(booking, timings);
 
         } catch (Exception e) {
             log.error("Error processing booking request: {}", e.getMessage(), e);
+            if (booking != null && booking.getId() != null) {
+                // The booking is stored and the driver is on the way, whatever failed after that must not
+                // make the caller (or an idempotent retry) think nothing was dispatched
+                return assignedResponse(booking, timings);
+            }
+            if (nearestDriver != null) {
+                driverRepository.releaseDriver(nearestDriver.getId());
+            }
+            if (heldHospitalId != null) {
+                capacityService.release(heldHospitalId);
+            }
             return new BookingResponse(
                 "Failed to process booking: " + e.getMessage(),
                 null,
@@ -207,50 +219,115 @@ public class BookingService {
                 "CANCELLED",
                 null
             );
+        } finally {
+            log.info("Booking pipeline for user {} took {}", request.getUserId(), timings.snapshot());
         }
     }
 
-    private AmbulanceDriver findNearestDriver(List<AmbulanceDriver> drivers, Location pickupLocation) {
-        return drivers.stream()
-            .min((d1, d2) -> {
-                double dist1 = calculateDistance(
-                    d1.getCurrentLocation().getLatitude(),
-                    d1.getCurrentLocation().getLongitude(),
-                    pickupLocation.getLatitude(),
-                    pickupLocation.getLongitude()
-                );
-                double dist2 = calculateDistance(
-                    d2.getCurrentLocation().getLatitude(),
-                    d2.getCurrentLocation().getLongitude(),
-                    pickupLocation.getLatitude(),
-                    pickupLocation.getLongitude()
-                );
-                return Double.compare(dist1, dist2);
-            })
-            .orElseThrow(() -> new RuntimeException("No drivers available"));
+    // Response for a booking an earlier attempt with the same Idempotency-Key already created
+    public Optional<BookingResponse> findByIdempotencyKey(String idempotencyKey) {
+        return bookingRepository.findByIdempotencyKey(idempotencyKey)
+            .map(booking -> assignedResponse(booking, new StageTimings()));
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        // Haversine formula
-        double R = 6371; // Earth's radius in kilometers
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat/2) * Math.sin(dLat/2) +
-                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                   Math.sin(dLon/2) * Math.sin(dLon/2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        return R * c;
+    private static BookingResponse assignedResponse(Booking booking, StageTimings timings) {
+        BookingResponse response = new BookingResponse(
+            "Driver assigned successfully",
+            booking.getId(),
+            booking.getDriverId(),
+            "ASSIGNED",
+            booking.getDriverId()
+        );
+        response.setStageTimings(timings.snapshot());
+        return response;
+    }
+
+    // Batch mode matches bursts of requests together, anything it cannot serve goes greedy
+    private AmbulanceDriver dispatchDriver(Location pickupLocation) {
+        if (batchDispatcher.isEnabled()) {
+            AmbulanceDriver batched = awaitBatchDispatch(pickupLocation);
+            if (batched != null) {
+                return batched;
+            }
+        }
+
+        // Find nearby drivers BEFORE creating booking
+        List<AmbulanceDriver> nearbyDrivers = findNearbyDrivers(pickupLocation);
+        log.info("Found {} nearby drivers", nearbyDrivers.size());
+
+        if (nearbyDrivers.isEmpty()) {
+            log.warn("No drivers found within {}km radius", DriverLocationService.MAX_SEARCH_RADIUS_KM);
+            return null;
+        }
+
+        // Claim the nearest driver that is still free
+        AmbulanceDriver claimed = reserveNearestDriver(nearbyDrivers, pickupLocation);
+        if (claimed == null) {
+            log.warn("All {} nearby drivers were claimed by concurrent bookings", nearbyDrivers.size());
+        }
+        return claimed;
+    }
+
+    // Do not leave a driver claimed for a request that has stopped waiting
+    private void releaseWhenAssigned(CompletableFuture<AmbulanceDriver> assignment) {
+        assignment.thenAccept(driver -> {
+            if (driver != null) {
+                driverRepository.releaseDriver(driver.getId());
+            }
+        });
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private AmbulanceDriver awaitBatchDispatch(Location pickupLocation) {
+        CompletableFuture<AmbulanceDriver> assignment = batchDispatcher.dispatch(pickupLocation);
+        try {
+            return assignment.get(batchDispatcher.getWindowMs() + BATCH_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Batch dispatch did not answer in time, falling back to greedy dispatch");
+            releaseWhenAssigned(assignment);
+            return null;
+        } catch (InterruptedException e) {
+            releaseWhenAssigned(assignment);
+            Thread.currentThread().interrupt();
+            throw new BookingException("Interrupted while waiting for batch dispatch", e);
+        } catch (ExecutionException e) {
+            log.warn("Batch dispatch failed, falling back to greedy dispatch: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Tries candidates closest first; a failed claim means another booking won that driver
+    private AmbulanceDriver reserveNearestDriver(List<AmbulanceDriver> drivers, Location pickupLocation) {
+        GeoDistance.Query pickup = GeoDistance.from(pickupLocation.getLatitude(), pickupLocation.getLongitude());
+        List<AmbulanceDriver> ranked = drivers.stream()
+            .sorted(Comparator.comparingDouble(driver -> pickup.haversineKm(
+                driver.getCurrentLocation().getLatitude(),
+                driver.getCurrentLocation().getLongitude()
+            )))
+            .collect(Collectors.toList());
+
+        for (AmbulanceDriver candidate : ranked) {
+            Optional<AmbulanceDriver> claimed = driverRepository.claimDriver(candidate.getId());
+            if (claimed.isPresent()) {
+                return claimed.get();
+            }
+            log.debug("Driver {} was claimed concurrently, trying next candidate", candidate.getId());
+        }
+        return null;
     }
 
     private Integer calculateEstimatedTime(Location driverLocation, Location pickupLocation) {
-        double distance = calculateDistance(
-            driverLocation.getLatitude(),
-            driverLocation.getLongitude(),
-            pickupLocation.getLatitude(),
-            pickupLocation.getLongitude()
-        );
-        // Assume average speed of 40 km/h
-        return (int) Math.ceil(distance / 40.0 * 60);
+        return etaCache.estimateMinutes(driverLocation, pickupLocation);
     }
 
     public List<Booking> getAssignedBookings(String driverId) {
@@ -258,16 +335,25 @@ public class BookingService {
     }
     
     public Location getDriverLocation(String driverId) {
-        log.info("Fetching location for driver: {}", driverId);
+        log.debug("Fetching location for driver: {}", driverId);
+
+        // With several instances a driver's pings can land on another node, whose fixes only reach
+        // this one through Mongo; the local fix is used only while it is the newer of the two
+        LocationFix fix = presenceRegistry.getLastFix(driverId);
+        Optional<AmbulanceDriver> driver = driverRepository.findById(driverId);
+        if (fix != null && driver.map(d -> d.getCurrentLocation() == null
+                || fix.isNewerThan(d.getLocationUpdatedAt())).orElse(true)) {
+            return fix.getLocation();
+        }
         
-        AmbulanceDriver driver = driverRepository.findById(driverId)
+        AmbulanceDriver persisted = driver
             .orElseThrow(() -> new ResourceNotFoundException("Driver not found: " + driverId));
 
-        if (driver.getCurrentLocation() == null) {
+        if (persisted.getCurrentLocation() == null) {
             throw new ResourceNotFoundException("Location not found for driver: " + driverId);
         }
 
-        return driver.getCurrentLocation();
+        return persisted.getCurrentLocation();
     }
     
     public List<Booking> getDriverBookings(String driverId) {
@@ -287,25 +373,48 @@ public class BookingService {
     // Complete a booking
     public Booking completeBooking(String bookingId, String driverId) {
         log.info("Completing booking - ID: {}, Driver: {}", bookingId, driverId);
-        Booking booking = getBookingDetails(bookingId, driverId);
-        
-        booking.setStatus(BookingStatus.COMPLETED);
-        
-        return bookingRepository.save(booking);
+        return complete(bookingId, driverId)
+            .orElseGet(() -> getBookingDetails(bookingId, driverId));
     }
     
     public Booking updateBookingStatusToCompleted(String bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-            .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
-        
-        // Update status to completed
-        booking.updateStatus(BookingStatus.COMPLETED);
-        
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = complete(bookingId, null)
+            .orElseGet(() -> bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId)));
         
         log.info("Booking {} status updated to COMPLETED", bookingId);
         
         return updatedBooking;
     }
+
+    // ASSIGNED -> COMPLETED as one conditional update. Only the caller that wins it releases the
+    // driver and publishes the event (which in turn frees the hospital bed); a repeated or racing
+    // completion gets the booking's current state back with no side effects.
+    private Optional<Booking> complete(String bookingId, String driverId) {
+        Optional<Booking> completed = bookingRepository.transitionStatus(
+            bookingId, driverId, BookingStatus.ASSIGNED, BookingStatus.COMPLETED);
+        completed.ifPresent(booking -> {
+            if (booking.getDriverId() != null) {
+                driverRepository.releaseDriver(booking.getDriverId());
+            }
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(booking));
+        });
+        return completed;
+    }
     
-}
\ No newline at end of file
+    // Route the assigned driver drove for a booking, from creation until completion (or now)
+    public List<LocationPoint> getBookingTrack(String bookingId, HistoryResolution resolution) {
+        Booking booking = bookingRepository.findById(bookingId)
+            .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + bookingId));
+        if (booking.getDriverId() == null || booking.getCreatedAt() == null) {
+            return Collections.emptyList();
+        }
+
+        Instant from = booking.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        Instant to = booking.isActive() || booking.getUpdatedAt() == null
+            ? Instant.now()
+            : booking.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return locationHistoryService.getTrack(booking.getDriverId(), from, to, resolution);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Event.BookingStatusChangedEvent;
+import com.example.LikeLink.Event.DriverLocationChangedEvent;
+import com.example.LikeLink.Model.Booking;
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Repository.BookingRepository;
+import com.example.LikeLink.dto.response.DriverLocationEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes every accepted location ping to STOMP subscribers, once per driver topic and once per
+ * active booking of that driver. The broker fans each message out to all subscribers, so
+ * tracking clients cost nothing per poll.
+ *
+ * A driver's active bookings are read from Mongo when a ping is published and kept for
+ * websocket.booking-cache-ttl-ms, so a booking assigned on another node starts streaming within
+ * that window. Status changes on this node drop the driver's entry straight away.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DriverLocationPublisher {
+
+    private static final String DRIVER_TOPIC = "/topic/drivers/%s/location";
+    private static final String BOOKING_TOPIC = "/topic/bookings/%s/location";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BookingRepository bookingRepository;
+
+    @Value("${websocket.booking-cache-ttl-ms:5000}")
+    private long bookingCacheTtlMs;
+
+    private final Map<String, ActiveBookings> activeBookingsByDriver = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        String driverId = event.getBooking().getDriverId();
+        if (driverId != null) {
+            activeBookingsByDriver.remove(driverId);
+        }
+    }
+
+    @EventListener
+    public void onDriverLocationChanged(DriverLocationChangedEvent event) {
+        publish(event.getDriverId(), event.getLocation());
+    }
+
+    // Drivers that stopped pinging would otherwise keep their last entry forever
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        activeBookingsByDriver.values().removeIf(entry -> now - entry.loadedAt >= bookingCacheTtlMs);
+    }
+
+    private List<String> activeBookings(String driverId) {
+        long now = System.currentTimeMillis();
+        ActiveBookings cached = activeBookingsByDriver.get(driverId);
+        if (cached != null && now - cached.loadedAt < bookingCacheTtlMs) {
+            return cached.bookingIds;
+        }
+        // Concurrent misses for the same driver may both load, the later put simply wins
+        List<String> bookingIds = bookingRepository.findActiveBookingsByDriverId(driverId).stream()
+            .map(Booking::getId)
+            .toList();
+        activeBookingsByDriver.put(driverId, new ActiveBookings(bookingIds, now));
+        return bookingIds;
+    }
+
+    private void publish(String driverId, Location location) {
+        try {
+            long now = System.currentTimeMillis();
+            messagingTemplate.convertAndSend(String.format(DRIVER_TOPIC, driverId),
+                new DriverLocationEvent(driverId, null, location.getLatitude(), location.getLongitude(), now));
+
+            for (String bookingId : activeBookings(driverId)) {
+                messagingTemplate.convertAndSend(String.format(BOOKING_TOPIC, bookingId),
+                    new DriverLocationEvent(driverId, bookingId, location.getLatitude(), location.getLongitude(), now));
+            }
+        } catch (Exception e) {
+            // Streaming is best effort, the ping itself has already been accepted
+            log.warn("Failed to publish location for driver {}: {}", driverId, e.getMessage());
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ActiveBookings {
+        private final List<String> bookingIds;
+        private final long loadedAt;
+    }
+}
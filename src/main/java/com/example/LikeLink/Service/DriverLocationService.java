@@ -1,22 +1,34 @@
 package com.example.LikeLink.Service;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import com.example.LikeLink.Event.DriverLocationChangedEvent;
 import com.example.LikeLink.Model.AmbulanceDriver;
 import com.example.LikeLink.Model.Location;
 import com.example.LikeLink.Repository.AmbulanceDriverRepository;
 import com.example.LikeLink.Exception.DriverNotFoundException;
 import com.example.LikeLink.Exception.InvalidLocationException;
+import com.example.LikeLink.Util.GeoDistance;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Comparator;
 
@@ -26,28 +38,51 @@ import java.util.Comparator;
 public class DriverLocationService {
 
     private final AmbulanceDriverRepository driverRepository;
-    private static final double EARTH_RADIUS_KM = 6371.0;
-    private static final double MAX_SEARCH_RADIUS_KM = 10.0;
+    private final DriverSpatialIndex driverIndex;
+    private final LocationIngestionService locationIngestionService;
+    private final LocationUpdateFilter locationUpdateFilter;
+    private final DriverPresenceRegistry presenceRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EtaCache etaCache;
+    private static final double[] SEARCH_RINGS_KM = {2.0, 5.0, 10.0, 25.0};
+    static final double MAX_SEARCH_RADIUS_KM = SEARCH_RINGS_KM[SEARCH_RINGS_KM.length - 1];
+    private static final int MIN_CANDIDATES = 3;
+    private static final int MAX_CANDIDATES = 10;
     private static final double SUSPICIOUS_DISTANCE_KM = 100.0;
 
     @Transactional
     public Location updateDriverLocation(String driverId, double latitude, double longitude) {
         try {
             validateCoordinates(latitude, longitude);
+            Location newLocation = new Location(latitude, longitude);
 
-            AmbulanceDriver driver = driverRepository.findById(driverId)
-                .orElseThrow(() -> new DriverNotFoundException("Driver not found with id: " + driverId));
+            // Parked or predictable pings of online drivers skip the bulk write
+            LocationUpdateFilter.Decision decision = locationUpdateFilter.evaluate(driverId, latitude, longitude);
+            if (decision == LocationUpdateFilter.Decision.STATIONARY && presenceRegistry.heartbeat(driverId)) {
+                return newLocation;
+            }
+            if (decision == LocationUpdateFilter.Decision.PREDICTED && presenceRegistry.isOnline(driverId)) {
+                presenceRegistry.update(driverId, latitude, longitude);
+                eventPublisher.publishEvent(new DriverLocationChangedEvent(driverId, newLocation));
+                return newLocation;
+            }
 
-            Location newLocation = new Location(latitude, longitude);
-            validateLocationUpdate(driver, newLocation);
+            // Only drivers coming online need the document, everyone else is validated from memory
+            Location lastKnown = presenceRegistry.getLastKnownLocation(driverId);
+            if (lastKnown == null) {
+                AmbulanceDriver driver = driverRepository.findById(driverId)
+                    .orElseThrow(() -> new DriverNotFoundException("Driver not found with id: " + driverId));
+                lastKnown = driver.getCurrentLocation();
+            }
+            validateLocationUpdate(driverId, lastKnown, newLocation);
 
-            driver.setCurrentLocation(newLocation);
-            driver.setUpdatedAt(LocalDateTime.now());
+            presenceRegistry.update(driverId, latitude, longitude);
+            locationIngestionService.submit(driverId, newLocation);
+            locationUpdateFilter.accept(driverId, latitude, longitude);
+            eventPublisher.publishEvent(new DriverLocationChangedEvent(driverId, newLocation));
+            log.debug("Queued location for driver {}: [{}, {}]", driverId, longitude, latitude);
             
-            AmbulanceDriver updatedDriver = driverRepository.save(driver);
-            log.info("Updated location for driver {}: [{}, {}]", driverId, longitude, latitude);
-            
-            return updatedDriver.getCurrentLocation();
+            return newLocation;
 
         } catch (DriverNotFoundException | InvalidLocationException e) {
             log.warn(e.getMessage());
@@ -63,9 +98,13 @@ public class DriverLocationService {
         try {
 //            validateCoordinates(latitude, longitude);
 
-            List<AmbulanceDriver> allDrivers = driverRepository.findAll();
-            
-            return allDrivers;
+            List<AmbulanceDriver> indexed = findIndexedDrivers(latitude, longitude);
+            if (!indexed.isEmpty()) {
+                return indexed;
+            }
+
+            // Index is cold or the pings went to another instance, let Mongo pick the candidates
+            return findDriversByGeoNear(latitude, longitude);
 
         } catch (InvalidLocationException e) {
             log.warn(e.getMessage());
@@ -77,6 +116,90 @@ public class DriverLocationService {
     }
 
 
+    // Union of the candidates around several pickups, loaded with a single query when the index is warm
+    public List<AmbulanceDriver> findNearbyDrivers(List<Location> pickupLocations) {
+        Set<String> candidateIds = new LinkedHashSet<>();
+        for (Location pickup : pickupLocations) {
+            driverIndex.nearest(pickup.getLatitude(), pickup.getLongitude(), MAX_CANDIDATES, MAX_SEARCH_RADIUS_KM)
+                .forEach(neighbor -> candidateIds.add(neighbor.getDriverId()));
+        }
+        if (!candidateIds.isEmpty()) {
+            return loadCandidates(candidateIds);
+        }
+
+        Map<String, AmbulanceDriver> drivers = new LinkedHashMap<>();
+        for (Location pickup : pickupLocations) {
+            findDriversByGeoNear(pickup.getLatitude(), pickup.getLongitude())
+                .forEach(driver -> drivers.putIfAbsent(driver.getId(), driver));
+        }
+        return new ArrayList<>(drivers.values());
+    }
+
+    private List<AmbulanceDriver> findIndexedDrivers(double latitude, double longitude) {
+        List<String> candidateIds = driverIndex.nearest(latitude, longitude, MAX_CANDIDATES, MAX_SEARCH_RADIUS_KM)
+            .stream()
+            .map(DriverSpatialIndex.Neighbor::getDriverId)
+            .collect(Collectors.toList());
+
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        return loadCandidates(candidateIds);
+    }
+
+    private List<AmbulanceDriver> loadCandidates(Iterable<String> candidateIds) {
+        // Positions in the index may lag the database slightly, callers re-rank on the fresh documents
+        return driverRepository.findAllById(candidateIds).stream()
+            .filter(AmbulanceDriver::isDispatchable)
+            .filter(this::isLive)
+            .collect(Collectors.toList());
+    }
+
+    private List<AmbulanceDriver> findDriversByGeoNear(double latitude, double longitude) {
+        List<AmbulanceDriver> drivers = List.of();
+        LocalDateTime locatedSince = LocalDateTime.now().minus(presenceRegistry.getTimeoutMs(), ChronoUnit.MILLIS);
+        for (double radiusKm : SEARCH_RINGS_KM) {
+            drivers = driverRepository.findNearestDrivers(longitude, latitude, radiusKm * 1000, locatedSince, MAX_CANDIDATES)
+                .stream()
+                .filter(this::isLive)
+                .collect(Collectors.toList());
+            if (drivers.size() >= MIN_CANDIDATES) {
+                log.debug("Found {} drivers within {}km ring", drivers.size(), radiusKm);
+                break;
+            }
+        }
+        return drivers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDriverIndex() {
+        // Drivers that reported recently start out online, everyone else waits for their next ping
+        List<AmbulanceDriver> drivers = driverRepository.findAll();
+        for (AmbulanceDriver driver : drivers) {
+            if (isRecentlyLocated(driver)) {
+                Location location = driver.getCurrentLocation();
+                long seenAt = driver.getLocationUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                presenceRegistry.update(driver.getId(), location.getLatitude(), location.getLongitude(), seenAt);
+            }
+        }
+        log.info("Loaded {} online drivers into spatial index", driverIndex.size());
+    }
+
+    // Online here, or located recently enough through another instance
+    private boolean isLive(AmbulanceDriver driver) {
+        return presenceRegistry.isOnline(driver.getId()) || isRecentlyLocated(driver);
+    }
+
+    // Keyed on locationUpdatedAt: updatedAt also moves on claims, releases and profile edits,
+    // which say nothing about whether the driver is still reporting
+    private boolean isRecentlyLocated(AmbulanceDriver driver) {
+        Location location = driver.getCurrentLocation();
+        return location != null && location.isValid()
+            && !DriverPresenceRegistry.isPlaceholder(location.getLatitude(), location.getLongitude())
+            && driver.getLocationUpdatedAt() != null
+            && driver.getLocationUpdatedAt().isAfter(LocalDateTime.now().minus(presenceRegistry.getTimeoutMs(), ChronoUnit.MILLIS));
+    }
+
     private void validateCoordinates(double latitude, double longitude) {
         if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
             throw new InvalidLocationException(
@@ -84,18 +207,20 @@ public class DriverLocationService {
         }
     }
 
-    private void validateLocationUpdate(AmbulanceDriver driver, Location newLocation) {
-        if (driver.getCurrentLocation() != null) {
-            double distance = calculateDistance(
-                driver.getCurrentLocation().getLatitude(),
-                driver.getCurrentLocation().getLongitude(),
+    private void validateLocationUpdate(String driverId, Location lastKnown, Location newLocation) {
+        // The registration placeholder is not a real position to jump from
+        if (lastKnown != null && lastKnown.isValid()
+                && !DriverPresenceRegistry.isPlaceholder(lastKnown.getLatitude(), lastKnown.getLongitude())) {
+            double distance = GeoDistance.haversineKm(
+                lastKnown.getLatitude(),
+                lastKnown.getLongitude(),
                 newLocation.getLatitude(),
                 newLocation.getLongitude()
             );
 
             if (distance > SUSPICIOUS_DISTANCE_KM) {
                 log.warn("Suspicious location update for driver {}: Distance {} km", 
-                    driver.getId(), distance);
+                    driverId, distance);
                 throw new InvalidLocationException(
                     "Location update rejected due to suspicious distance");
             }
@@ -104,36 +229,13 @@ public class DriverLocationService {
 
     public int calculateEstimatedTime(Location driverLocation, Location userLocation) {
         try {
-            double distance = calculateDistance(
-                driverLocation.getLatitude(),
-                driverLocation.getLongitude(),
-                userLocation.getLatitude(),
-                userLocation.getLongitude()
-            );
-            
-            // Assume average speed of 40 km/h in city traffic
-            double averageSpeedKmH = 40.0;
-            return (int) Math.ceil((distance / averageSpeedKmH) * 60);
-            
+            return etaCache.estimateMinutes(driverLocation, userLocation);
         } catch (Exception e) {
             log.error("Error calculating estimated time: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to calculate estimated time", e);
         }
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
-                   
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return EARTH_RADIUS_KM * c;
-    }
-
     @Scheduled(fixedRate = 300000) 
     @CacheEvict(value = "nearbyDrivers", allEntries = true)
     public void clearNearbyDriversCache() {
@@ -0,0 +1,178 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Model.LocationFix;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Which drivers are online, and where each was last seen.
+ *
+ * Every ping is a heartbeat. A driver with no heartbeat for presence.timeout-ms is expired and
+ * removed from the spatial index, so it can no longer be ranked for dispatch. Expiry runs on a
+ * timing wheel: heartbeats only bump a timestamp, and each tick looks at the one slot of drivers
+ * that were due, rescheduling the ones that pinged meanwhile. Placeholder (0, 0) positions from
+ * registration never enter the registry.
+ *
+ * Index writes happen inside the map operation on the driver's entry, so a ping racing an expiry
+ * or markOffline can never leave a driver in the index after it went offline, or out of it while
+ * still online.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DriverPresenceRegistry {
+
+    private final DriverSpatialIndex driverIndex;
+
+    @Value("${presence.timeout-ms:120000}")
+    private long timeoutMs;
+
+    @Value("${presence.tick-ms:1000}")
+    private long tickMs;
+
+    // Wall clock in milliseconds, replaced in tests to drive the wheel deterministically
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<String, Presence> online = new ConcurrentHashMap<>();
+    private Set<String>[] wheel;
+    private long lastTick;
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        wheel = new Set[(int) (timeoutMs / tickMs) + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        lastTick = clock.getAsLong() / tickMs;
+    }
+
+    // Records a position ping; returns false for placeholder positions, which are ignored
+    public boolean update(String driverId, double latitude, double longitude) {
+        return update(driverId, latitude, longitude, clock.getAsLong());
+    }
+
+    public boolean update(String driverId, double latitude, double longitude, long seenAt) {
+        if (isPlaceholder(latitude, longitude)) {
+            return false;
+        }
+        online.compute(driverId, (id, presence) -> {
+            if (presence == null) {
+                presence = new Presence(latitude, longitude, seenAt);
+                schedule(id, Math.max(seenAt + timeoutMs, clock.getAsLong() + tickMs));
+            }
+            presence.latitude = latitude;
+            presence.longitude = longitude;
+            presence.lastSeen = Math.max(presence.lastSeen, seenAt);
+            driverIndex.update(id, latitude, longitude);
+            return presence;
+        });
+        return true;
+    }
+
+    // Liveness only; false when the driver is not online and needs a full update instead
+    public boolean heartbeat(String driverId) {
+        long now = clock.getAsLong();
+        return online.computeIfPresent(driverId, (id, presence) -> {
+            presence.lastSeen = Math.max(presence.lastSeen, now);
+            return presence;
+        }) != null;
+    }
+
+    public boolean isOnline(String driverId) {
+        return online.containsKey(driverId);
+    }
+
+    // Last position seen while online, or null
+    public Location getLastKnownLocation(String driverId) {
+        Presence presence = online.get(driverId);
+        return presence == null ? null : new Location(presence.latitude, presence.longitude);
+    }
+
+    // Last position seen while online and when it was last confirmed, or null
+    public LocationFix getLastFix(String driverId) {
+        Presence presence = online.get(driverId);
+        return presence == null ? null
+            : new LocationFix(new Location(presence.latitude, presence.longitude), Instant.ofEpochMilli(presence.lastSeen));
+    }
+
+    public void markOffline(String driverId) {
+        online.computeIfPresent(driverId, (id, presence) -> {
+            driverIndex.remove(id);
+            return null;
+        });
+    }
+
+    public int onlineCount() {
+        return online.size();
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public static boolean isPlaceholder(double latitude, double longitude) {
+        return latitude == 0.0 && longitude == 0.0;
+    }
+
+    @Scheduled(fixedRateString = "${presence.tick-ms:1000}")
+    public synchronized void tick() {
+        long now = clock.getAsLong();
+        long currentTick = now / tickMs;
+        // Catch up on ticks missed while the scheduler was busy, at most one full turn
+        long from = Math.max(lastTick + 1, currentTick - wheel.length + 1);
+        int[] expired = {0};
+
+        for (long tick = from; tick <= currentTick; tick++) {
+            Set<String> slot = wheel[(int) (tick % wheel.length)];
+            for (String driverId : slot) {
+                slot.remove(driverId);
+                // Decided under the entry's lock, so a ping arriving now either lands first and
+                // keeps the driver, or finds it gone and registers it afresh
+                online.computeIfPresent(driverId, (id, presence) -> {
+                    long expiresAt = presence.lastSeen + timeoutMs;
+                    if (expiresAt <= now) {
+                        driverIndex.remove(id);
+                        expired[0]++;
+                        return null;
+                    }
+                    schedule(id, Math.max(expiresAt, (currentTick + 1) * tickMs));
+                    return presence;
+                });
+            }
+        }
+        lastTick = currentTick;
+        if (expired[0] > 0) {
+            log.info("Expired {} drivers without a heartbeat, {} online", expired[0], online.size());
+        }
+    }
+
+    private void schedule(String driverId, long at) {
+        wheel[(int) ((at / tickMs) % wheel.length)].add(driverId);
+    }
+
+    private static class Presence {
+        private volatile double latitude;
+        private volatile double longitude;
+        private volatile long lastSeen;
+
+        Presence(double latitude, double longitude, long lastSeen) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
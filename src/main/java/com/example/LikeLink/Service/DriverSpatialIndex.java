@@ -0,0 +1,185 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.stereotype.Component;
+
+import com.example.LikeLink.Util.GeoDistance;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process fixed-cell grid of driver positions.
+ *
+ * Each driver lives in exactly one cell of CELL_SIZE_DEG x CELL_SIZE_DEG degrees, so
+ * radius and k-nearest queries only visit the cells around the query point and their
+ * cost depends on how many drivers are nearby rather than on the fleet size.
+ */
+@Component
+public class DriverSpatialIndex {
+
+    private static final double CELL_SIZE_DEG = 0.02; // ~2.2 km at the equator
+    private static final double KM_PER_DEG_LAT = 111.195;
+    private static final int LON_CELLS = (int) Math.ceil(360.0 / CELL_SIZE_DEG);
+    private static final int LAT_CELLS = (int) Math.ceil(180.0 / CELL_SIZE_DEG);
+
+    private final Map<String, IndexedDriver> positions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+    public void update(String driverId, double latitude, double longitude) {
+        long cell = cellOf(latitude, longitude);
+        positions.compute(driverId, (id, previous) -> {
+            if (previous == null || previous.getCell() != cell) {
+                if (previous != null) {
+                    removeFromCell(previous.getCell(), id);
+                }
+                cells.compute(cell, (key, members) -> {
+                    Set<String> set = members != null ? members : ConcurrentHashMap.newKeySet();
+                    set.add(id);
+                    return set;
+                });
+            }
+            return new IndexedDriver(id, latitude, longitude, cell);
+        });
+    }
+
+    public void remove(String driverId) {
+        positions.computeIfPresent(driverId, (id, previous) -> {
+            removeFromCell(previous.getCell(), id);
+            return null;
+        });
+    }
+
+    public IndexedDriver get(String driverId) {
+        return positions.get(driverId);
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    // All drivers within radiusKm of the point, closest first
+    public List<Neighbor> withinRadius(double latitude, double longitude, double radiusKm) {
+        double latSpan = radiusKm / KM_PER_DEG_LAT;
+        double lonSpan = Math.min(180.0, radiusKm / (KM_PER_DEG_LAT * Math.max(Math.cos(Math.toRadians(latitude)), 1e-6)));
+
+        int minLat = latIndex(latitude - latSpan);
+        int maxLat = latIndex(latitude + latSpan);
+        int centerLon = lonIndex(longitude);
+        int lonReach = Math.min(LON_CELLS / 2, (int) Math.ceil(lonSpan / CELL_SIZE_DEG) + 1);
+
+        GeoDistance.Query query = GeoDistance.from(latitude, longitude);
+        GeoDistance.Box box = query.box(radiusKm);
+        List<Neighbor> result = new ArrayList<>();
+        for (int la = minLat; la <= maxLat; la++) {
+            for (int lo = centerLon - lonReach; lo <= centerLon + lonReach; lo++) {
+                collect(key(la, Math.floorMod(lo, LON_CELLS)), query, box, radiusKm, result);
+            }
+        }
+        result.sort(Comparator.comparingDouble(Neighbor::getDistanceKm));
+        return result;
+    }
+
+    // Up to k drivers closest to the point, searching outward ring by ring and never past maxRadiusKm
+    public List<Neighbor> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+        double cellHeightKm = CELL_SIZE_DEG * KM_PER_DEG_LAT;
+        int maxRing = (int) Math.ceil(maxRadiusKm / (cellHeightKm * Math.max(Math.cos(Math.toRadians(Math.abs(latitude) + maxRadiusKm / KM_PER_DEG_LAT)), 0.01)));
+        maxRing = Math.min(maxRing, LON_CELLS / 2);
+
+        GeoDistance.Query query = GeoDistance.from(latitude, longitude);
+        GeoDistance.Box box = query.box(maxRadiusKm);
+        List<Neighbor> found = new ArrayList<>();
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int la = centerLat - ring; la <= centerLat + ring; la++) {
+                if (la < 0 || la >= LAT_CELLS) {
+                    continue;
+                }
+                boolean edgeRow = la == centerLat - ring || la == centerLat + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int lo = centerLon - ring; lo <= centerLon + ring; lo += step) {
+                    collect(key(la, Math.floorMod(lo, LON_CELLS)), query, box, maxRadiusKm, found);
+                }
+            }
+
+            // Anything in an unvisited ring is at least this far away
+            double coveredKm = ring * cellHeightKm
+                * Math.max(Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + (ring + 1) * CELL_SIZE_DEG))), 0.01);
+            if (found.size() >= k) {
+                found.sort(Comparator.comparingDouble(Neighbor::getDistanceKm));
+                if (found.get(k - 1).getDistanceKm() <= coveredKm) {
+                    return new ArrayList<>(found.subList(0, k));
+                }
+            }
+            if (coveredKm >= maxRadiusKm) {
+                break;
+            }
+        }
+        found.sort(Comparator.comparingDouble(Neighbor::getDistanceKm));
+        return found.size() > k ? new ArrayList<>(found.subList(0, k)) : found;
+    }
+
+    private void collect(long cell, GeoDistance.Query query, GeoDistance.Box box, double radiusKm, List<Neighbor> out) {
+        Set<String> members = cells.get(cell);
+        if (members == null) {
+            return;
+        }
+        for (String driverId : members) {
+            IndexedDriver driver = positions.get(driverId);
+            if (driver == null || !box.contains(driver.getLatitude(), driver.getLongitude())) {
+                continue;
+            }
+            double distance = query.haversineKm(driver.getLatitude(), driver.getLongitude());
+            if (distance <= radiusKm) {
+                out.add(new Neighbor(driverId, distance));
+            }
+        }
+    }
+
+    private void removeFromCell(long cell, String driverId) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(driverId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return key(latIndex(latitude), lonIndex(longitude));
+    }
+
+    private static int latIndex(double latitude) {
+        int index = (int) Math.floor((latitude + 90.0) / CELL_SIZE_DEG);
+        return Math.max(0, Math.min(LAT_CELLS - 1, index));
+    }
+
+    private static int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / CELL_SIZE_DEG), LON_CELLS);
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class IndexedDriver {
+        private final String driverId;
+        private final double latitude;
+        private final double longitude;
+        private final long cell;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Neighbor {
+        private final String driverId;
+        private final double distanceKm;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Util.SegmentedLruCache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalTime;
+
+/**
+ * Bounded cache of routed ETAs keyed by (origin cell, destination cell, time-of-day slot).
+ *
+ * Pickups cluster around hotspots and destinations are a fixed set of hospitals, so most
+ * lookups land on a pair that was routed moments ago.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EtaCache {
+
+    private final RoutingService routingService;
+
+    @Value("${eta.cache.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${eta.cache.cell-size-deg:0.005}")
+    private double cellSizeDeg;
+
+    @Value("${eta.cache.time-slot-minutes:15}")
+    private int timeSlotMinutes;
+
+    @Value("${eta.cache.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    private SegmentedLruCache<Key, Integer> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new SegmentedLruCache<>(maxEntries);
+    }
+
+    public int estimateMinutes(Location from, Location to) {
+        Key key = new Key(cell(from.getLatitude()), cell(from.getLongitude()),
+            cell(to.getLatitude()), cell(to.getLongitude()), LocalTime.now().toSecondOfDay() / 60 / timeSlotMinutes);
+        long now = System.currentTimeMillis();
+
+        Integer cached = cache.get(key, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        int minutes = routingService.estimateMinutes(from, to);
+        cache.put(key, minutes, now + ttlSeconds * 1000);
+        return minutes;
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logStats() {
+        if (log.isDebugEnabled()) {
+            log.debug("ETA cache: {}", cache.stats());
+        }
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDeg);
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final long originLat;
+        private final long originLon;
+        private final long destinationLat;
+        private final long destinationLon;
+        private final int timeSlot;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Enum.BookingStatus;
+import com.example.LikeLink.Event.BookingStatusChangedEvent;
+import com.example.LikeLink.Model.Booking;
+import com.example.LikeLink.Model.Hospital;
+import com.example.LikeLink.Repository.BookingRepository;
+import com.example.LikeLink.Repository.HospitalRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live emergency-bed counters and capacity-aware hospital ranking.
+ *
+ * The counter of record is Hospital.availableEmergencyBeds, only ever changed by a conditional
+ * $inc on the hospital document, so concurrent bookings on one hospital never take the same
+ * bed and never take a lock. A bed is taken when a booking is assigned to the hospital and
+ * given back when that booking completes or is cancelled. Ranking reads a local mirror of
+ * the counters, refreshed from every write this node makes and from Mongo every
+ * hospital.capacity.refresh-ms to pick up other nodes' writes.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class HospitalCapacityService {
+
+    private final HospitalRepository hospitalRepository;
+    private final BookingRepository bookingRepository;
+    private final HospitalDirectory hospitalDirectory;
+
+    @Value("${hospital.selection.candidates:8}")
+    private int candidates;
+
+    @Value("${hospital.selection.occupancy-penalty-km:10}")
+    private double occupancyPenaltyKm;
+
+    private final Map<String, Integer> available = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        long initialized = hospitalRepository.initializeEmergencyBedCounters();
+        if (initialized > 0) {
+            log.info("Initialized emergency bed counters for {} hospitals", initialized);
+        }
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${hospital.capacity.refresh-ms:5000}", initialDelayString = "${hospital.capacity.refresh-ms:5000}")
+    public void refresh() {
+        available.putAll(hospitalRepository.findAvailableEmergencyBeds());
+    }
+
+    /**
+     * The hospitals closest to a location, best first. Hospitals with a free emergency bed come
+     * before full ones and ones without an emergency service; within each group a hospital is
+     * ranked by its distance plus occupancy-penalty-km scaled by how full its ER is.
+     */
+    public List<HospitalDirectory.NearbyHospital> rank(double latitude, double longitude) {
+        List<HospitalDirectory.NearbyHospital> ranked =
+            new ArrayList<>(hospitalDirectory.nearest(latitude, longitude, candidates));
+        ranked.sort(Comparator
+            .comparing((HospitalDirectory.NearbyHospital nearby) -> !canAdmit(nearby.getHospital()))
+            .thenComparingDouble(this::score));
+        return ranked;
+    }
+
+    // Takes a bed at the best ranked hospital that still has one, empty when all are full
+    public Optional<HospitalDirectory.NearbyHospital> reserve(List<HospitalDirectory.NearbyHospital> ranked) {
+        for (HospitalDirectory.NearbyHospital nearby : ranked) {
+            Hospital hospital = nearby.getHospital();
+            if (!canAdmit(hospital)) {
+                continue;
+            }
+            Optional<Integer> left = hospitalRepository.reserveEmergencyBed(hospital.getId());
+            if (left.isPresent()) {
+                available.put(hospital.getId(), left.get());
+                return Optional.of(nearby);
+            }
+            available.put(hospital.getId(), 0);
+            log.debug("Hospital {} ran out of emergency beds, trying next candidate", hospital.getId());
+        }
+        return Optional.empty();
+    }
+
+    public void release(String hospitalId) {
+        hospitalRepository.releaseEmergencyBed(hospitalId)
+            .ifPresent(left -> available.put(hospitalId, left));
+    }
+
+    public int availableBeds(Hospital hospital) {
+        Integer live = available.get(hospital.getId());
+        if (live != null) {
+            return live;
+        }
+        return hospital.getAvailableEmergencyBeds() != null
+            ? hospital.getAvailableEmergencyBeds()
+            : hospital.getEmergencyBeds();
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.getBooking();
+        if (booking.getStatus() != BookingStatus.COMPLETED && booking.getStatus() != BookingStatus.CANCELLED) {
+            return;
+        }
+        // Clearing the flag first makes the release happen once even if the booking is closed twice
+        if (booking.isHospitalBedHeld() && bookingRepository.clearHospitalBed(booking.getId())) {
+            release(booking.getHospitalId());
+        }
+    }
+
+    private boolean canAdmit(Hospital hospital) {
+        return hospital.isHasEmergencyService() && availableBeds(hospital) > 0;
+    }
+
+    private double score(HospitalDirectory.NearbyHospital nearby) {
+        Hospital hospital = nearby.getHospital();
+        double occupancy = hospital.getEmergencyBeds() > 0
+            ? 1.0 - Math.min(1.0, (double) availableBeds(hospital) / hospital.getEmergencyBeds())
+            : 1.0;
+        return nearby.getDistanceKm() + occupancyPenaltyKm * occupancy;
+    }
+}
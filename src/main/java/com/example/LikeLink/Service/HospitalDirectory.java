@@ -0,0 +1,197 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.LikeLink.Model.Hospital;
+import com.example.LikeLink.Repository.HospitalRepository;
+import com.example.LikeLink.Util.GeoDistance;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-mostly, copy-on-write directory of hospitals for nearest-hospital lookups.
+ *
+ * Hospitals are held in an immutable KD-tree over unit-sphere (x, y, z) coordinates, where
+ * straight-line chord distance orders points exactly like great-circle distance. Writers
+ * build a new tree and swap it in, readers never lock and never touch Mongo.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class HospitalDirectory {
+
+    private final HospitalRepository hospitalRepository;
+    private final AtomicReference<KdTree> tree = new AtomicReference<>(KdTree.build(List.of()));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        KdTree rebuilt = KdTree.build(hospitalRepository.findAll());
+        tree.set(rebuilt);
+        log.info("Loaded {} hospitals into hospital directory", rebuilt.size());
+    }
+
+    // Adds or replaces a hospital, readers keep using the previous tree until the swap
+    public void put(Hospital hospital) {
+        tree.updateAndGet(current -> {
+            List<Hospital> hospitals = new ArrayList<>(current.size() + 1);
+            for (Hospital existing : current.hospitals) {
+                if (!existing.getId().equals(hospital.getId())) {
+                    hospitals.add(existing);
+                }
+            }
+            hospitals.add(hospital);
+            return KdTree.build(hospitals);
+        });
+    }
+
+    public Optional<Hospital> findById(String hospitalId) {
+        return Optional.ofNullable(tree.get().byId.get(hospitalId));
+    }
+
+    public boolean isEmpty() {
+        return tree.get().size() == 0;
+    }
+
+    public Optional<NearbyHospital> nearest(double latitude, double longitude) {
+        List<NearbyHospital> result = nearest(latitude, longitude, 1);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    // Up to k hospitals, closest first
+    public List<NearbyHospital> nearest(double latitude, double longitude, int k) {
+        return tree.get().nearest(latitude, longitude, k);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class NearbyHospital {
+        private final Hospital hospital;
+        private final double distanceKm;
+    }
+
+    static final class KdTree {
+
+        // Nodes are stored in-order: the root of [lo, hi) is at (lo + hi) / 2
+        private final Hospital[] hospitals;
+        private final double[][] points;
+        private final Map<String, Hospital> byId;
+
+        private KdTree(Hospital[] hospitals, double[][] points) {
+            this.hospitals = hospitals;
+            this.points = points;
+            Map<String, Hospital> index = new HashMap<>(hospitals.length * 2);
+            for (Hospital hospital : hospitals) {
+                index.put(hospital.getId(), hospital);
+            }
+            this.byId = index;
+        }
+
+        static KdTree build(List<Hospital> source) {
+            Integer[] order = new Integer[source.size()];
+            double[][] raw = new double[source.size()][];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+                raw[i] = toUnitVector(source.get(i).getLatitude(), source.get(i).getLongitude());
+            }
+            split(order, raw, 0, order.length, 0);
+
+            Hospital[] hospitals = new Hospital[order.length];
+            double[][] points = new double[order.length][];
+            for (int i = 0; i < order.length; i++) {
+                hospitals[i] = source.get(order[i]);
+                points[i] = raw[order[i]];
+            }
+            return new KdTree(hospitals, points);
+        }
+
+        private static void split(Integer[] order, double[][] raw, int lo, int hi, int axis) {
+            if (hi - lo <= 1) {
+                return;
+            }
+            Arrays.sort(order, lo, hi, Comparator.comparingDouble(i -> raw[i][axis]));
+            int mid = (lo + hi) >>> 1;
+            split(order, raw, lo, mid, (axis + 1) % 3);
+            split(order, raw, mid + 1, hi, (axis + 1) % 3);
+        }
+
+        int size() {
+            return hospitals.length;
+        }
+
+        List<NearbyHospital> nearest(double latitude, double longitude, int k) {
+            if (k <= 0 || hospitals.length == 0) {
+                return List.of();
+            }
+            double[] target = toUnitVector(latitude, longitude);
+            // Max-heap on squared chord distance holding the best k so far
+            PriorityQueue<double[]> best = new PriorityQueue<>(k, (a, b) -> Double.compare(b[0], a[0]));
+            search(target, 0, hospitals.length, 0, k, best);
+
+            List<NearbyHospital> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                double[] entry = best.poll();
+                result.add(new NearbyHospital(hospitals[(int) entry[1]], chordToKm(Math.sqrt(entry[0]))));
+            }
+            result.sort(Comparator.comparingDouble(NearbyHospital::getDistanceKm));
+            return result;
+        }
+
+        private void search(double[] target, int lo, int hi, int axis, int k, PriorityQueue<double[]> best) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            double[] point = points[mid];
+            double dx = point[0] - target[0];
+            double dy = point[1] - target[1];
+            double dz = point[2] - target[2];
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (best.size() < k) {
+                best.add(new double[]{distance, mid});
+            } else if (distance < best.peek()[0]) {
+                best.poll();
+                best.add(new double[]{distance, mid});
+            }
+
+            double delta = target[axis] - point[axis];
+            int next = (axis + 1) % 3;
+            if (delta < 0) {
+                search(target, lo, mid, next, k, best);
+                if (best.size() < k || delta * delta < best.peek()[0]) {
+                    search(target, mid + 1, hi, next, k, best);
+                }
+            } else {
+                search(target, mid + 1, hi, next, k, best);
+                if (best.size() < k || delta * delta < best.peek()[0]) {
+                    search(target, lo, mid, next, k, best);
+                }
+            }
+        }
+
+        private static double[] toUnitVector(double latitude, double longitude) {
+            double lat = Math.toRadians(latitude);
+            double lon = Math.toRadians(longitude);
+            double cosLat = Math.cos(lat);
+            return new double[]{cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+        }
+
+        private static double chordToKm(double chord) {
+            return 2 * GeoDistance.EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+        }
+    }
+}
@@ -25,6 +25,9 @@ public class HospitalService {
 
     @Autowired
     private IncomingPatientRepository incomingPatientRepository;
+
+    @Autowired
+    private HospitalDirectory hospitalDirectory;
     
     private static final org.slf4j.Logger logger = LoggerFactory.getLogger(HospitalService.class);
 
@@ -51,11 +54,14 @@ public class HospitalService {
         hospital.setTotalBeds(request.getTotalBeds());
         hospital.setIcuBeds(request.getIcuBeds());
         hospital.setEmergencyBeds(request.getEmergencyBeds());
+        hospital.setAvailableEmergencyBeds(request.getEmergencyBeds());
         hospital.setHasAmbulanceService(request.isHasAmbulanceService());
         hospital.setHasEmergencyService(request.isHasEmergencyService());
         hospital.setDepartments(request.getDepartments());
 
-        return hospitalRepository.save(hospital);
+        Hospital saved = hospitalRepository.save(hospital);
+        hospitalDirectory.put(saved);
+        return saved;
     }
 
     public Hospital getHospitalById(String hospitalId) {
@@ -5,9 +5,7 @@ import org.springframework.stereotype.Service;
 import com.example.LikeLink.Enum.InsuranceType;
 import com.example.LikeLink.Exception.ResourceNotFoundException;
 import com.example.LikeLink.Model.Insurance;
-import com.example.LikeLink.Model.User;
 import com.example.LikeLink.Repository.InsuranceRepository;
-import com.example.LikeLink.Repository.UserRepository;
 import com.example.LikeLink.dto.request.InsuranceRequest;
 import com.example.LikeLink.dto.response.InsuranceResponse;
 
@@ -24,12 +22,8 @@ import java.util.stream.Collectors;
 public class InsuranceService {
 
     private final InsuranceRepository insuranceRepository;
-    private final UserRepository userRepository;
-
-    public InsuranceResponse addInsurance(InsuranceRequest request, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+    public InsuranceResponse addInsurance(InsuranceRequest request, String userId) {
         Insurance insurance = Insurance.builder()
                 .insuranceProviderName(request.getInsuranceProviderName())
                 .policyNumber(request.getPolicyNumber())
@@ -42,7 +36,7 @@ public class InsuranceService {
                 .planType(request.getPlanType())
                 .coversEmergencyService(request.isCoversEmergencyService())
                 .coversAmbulanceService(request.isCoversAmbulanceService())
-                .userId(user.getId())
+                .userId(userId)
                 .build();
 
         insurance.initializeTimestamps();
@@ -51,28 +45,22 @@ public class InsuranceService {
         return mapToResponse(savedInsurance);
     }
 
-    public List<InsuranceResponse> getAllInsurance(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        return insuranceRepository.findByUserId(user.getId())
+    public List<InsuranceResponse> getAllInsurance(String userId) {
+        return insuranceRepository.findByUserId(userId)
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    public InsuranceResponse getInsurance(String insuranceId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Insurance insurance = insuranceRepository.findByIdAndUserId(insuranceId, user.getId())
+    public InsuranceResponse getInsurance(String insuranceId, String userId) {
+        Insurance insurance = insuranceRepository.findByIdAndUserId(insuranceId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Insurance not found"));
 
         return mapToResponse(insurance);
     }
 
-    public InsuranceResponse updateInsurance(String insuranceId, InsuranceRequest request, String userEmail) {
-        Insurance insurance = getInsuranceForUser(insuranceId, userEmail);
+    public InsuranceResponse updateInsurance(String insuranceId, InsuranceRequest request, String userId) {
+        Insurance insurance = getInsuranceForUser(insuranceId, userId);
 
         insurance.setInsuranceProviderName(request.getInsuranceProviderName());
         insurance.setPolicyNumber(request.getPolicyNumber());
@@ -92,28 +80,13 @@ public class InsuranceService {
         return mapToResponse(updatedInsurance);
     }
 
-    public void deleteInsurance(String insuranceId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        Insurance insurance = insuranceRepository.findByIdAndUserId(insuranceId, user.getId())
+    public void deleteInsurance(String insuranceId, String userId) {
+        Insurance insurance = insuranceRepository.findByIdAndUserId(insuranceId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Insurance not found"));
 
         insuranceRepository.delete(insurance);
     }
 
-    public List<InsuranceResponse> getActiveInsurance(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        LocalDate now = LocalDate.now();
-        return insuranceRepository.findByUserId(user.getId())
-                .stream()
-                .filter(insurance -> isActive(insurance, now))
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
-    }
-    
     public List<InsuranceResponse> getActiveInsuranceByUserId(String userId) {
 
         LocalDate now = LocalDate.now();
@@ -125,35 +98,29 @@ public class InsuranceService {
     }
     
 
-    public List<InsuranceResponse> getInsuranceByType(InsuranceType type, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        return insuranceRepository.findByUserIdAndInsuranceType(user.getId(), type)
+    public List<InsuranceResponse> getInsuranceByType(InsuranceType type, String userId) {
+        return insuranceRepository.findByUserIdAndInsuranceType(userId, type)
                 .stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    public InsuranceResponse updateEmergencyServiceCoverage(String insuranceId, boolean covers, String userEmail) {
-        Insurance insurance = getInsuranceForUser(insuranceId, userEmail);
+    public InsuranceResponse updateEmergencyServiceCoverage(String insuranceId, boolean covers, String userId) {
+        Insurance insurance = getInsuranceForUser(insuranceId, userId);
         insurance.setCoversEmergencyService(covers);
         Insurance updatedInsurance = insuranceRepository.save(insurance);
         return mapToResponse(updatedInsurance);
     }
 
-    public InsuranceResponse updateAmbulanceServiceCoverage(String insuranceId, boolean covers, String userEmail) {
-        Insurance insurance = getInsuranceForUser(insuranceId, userEmail);
+    public InsuranceResponse updateAmbulanceServiceCoverage(String insuranceId, boolean covers, String userId) {
+        Insurance insurance = getInsuranceForUser(insuranceId, userId);
         insurance.setCoversAmbulanceService(covers);
         Insurance updatedInsurance = insuranceRepository.save(insurance);
         return mapToResponse(updatedInsurance);
     }
 
-    private Insurance getInsuranceForUser(String insuranceId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        return insuranceRepository.findByIdAndUserId(insuranceId, user.getId())
+    private Insurance getInsuranceForUser(String insuranceId, String userId) {
+        return insuranceRepository.findByIdAndUserId(insuranceId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Insurance not found"));
     }
 
@@ -0,0 +1,138 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Enum.HistoryResolution;
+import com.example.LikeLink.Event.DriverLocationChangedEvent;
+import com.example.LikeLink.Model.DriverLocationBucket;
+import com.example.LikeLink.Model.LocationPoint;
+import com.example.LikeLink.Repository.DriverLocationBucketRepository;
+import com.example.LikeLink.Repository.DriverLocationBucketRepositoryCustom.BucketAppend;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Driver route history stored as bucketed documents.
+ *
+ * Pings are queued in memory on the location path and written off-thread by a periodic flush.
+ * Each flush appends raw points to 15-minute buckets and samples the same stream into 30-second
+ * and 5-minute rollups, so a track query reads a handful of bucket documents. Raw buckets carry
+ * a TTL, rollups are kept.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LocationHistoryService {
+
+    private static final int MAX_PENDING_POINTS = 100_000;
+
+    private final DriverLocationBucketRepository bucketRepository;
+
+    @Value("${location.history.raw-ttl-days:7}")
+    private long rawTtlDays;
+
+    private final Queue<PendingPoint> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // Last sampled slot per driver per rollup, only touched by the flush thread
+    private final Map<String, long[]> lastSampledSlot = new HashMap<>();
+
+    @EventListener
+    public void onDriverLocationChanged(DriverLocationChangedEvent event) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING_POINTS) {
+            pendingCount.decrementAndGet();
+            log.warn("Location history queue full, dropping point for driver {}", event.getDriverId());
+            return;
+        }
+        pending.add(new PendingPoint(event.getDriverId(), new LocationPoint(
+            Instant.now(), event.getLocation().getLatitude(), event.getLocation().getLongitude())));
+    }
+
+    @Scheduled(fixedDelayString = "${location.history.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<String, BucketAppend> appends = new LinkedHashMap<>();
+        Instant rawExpiry = Instant.now().plus(Duration.ofDays(rawTtlDays));
+
+        PendingPoint next;
+        while ((next = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            long millis = next.point.getT().toEpochMilli();
+            long[] slots = lastSampledSlot.computeIfAbsent(next.driverId, id -> new long[]{-1L, -1L});
+
+            add(appends, next.driverId, HistoryResolution.RAW, millis, next.point, rawExpiry);
+            long slot30 = millis / HistoryResolution.SECONDS_30.getSampleMillis();
+            if (slot30 > slots[0]) {
+                slots[0] = slot30;
+                add(appends, next.driverId, HistoryResolution.SECONDS_30, millis, next.point, null);
+            }
+            long slot5 = millis / HistoryResolution.MINUTES_5.getSampleMillis();
+            if (slot5 > slots[1]) {
+                slots[1] = slot5;
+                add(appends, next.driverId, HistoryResolution.MINUTES_5, millis, next.point, null);
+            }
+        }
+        if (appends.isEmpty()) {
+            return;
+        }
+
+        try {
+            bucketRepository.appendPoints(new ArrayList<>(appends.values()));
+            log.debug("Appended location history to {} buckets", appends.size());
+        } catch (Exception e) {
+            // History is best effort and must never back up the live location path
+            log.error("Failed to write location history for {} buckets: {}", appends.size(), e.getMessage(), e);
+        }
+    }
+
+    private static void add(Map<String, BucketAppend> appends, String driverId, HistoryResolution resolution,
+                            long millis, LocationPoint point, Instant expireAt) {
+        Instant bucketStart = Instant.ofEpochMilli(millis - Math.floorMod(millis, resolution.getBucketMillis()));
+        String key = driverId + '|' + resolution + '|' + bucketStart.toEpochMilli();
+        appends.computeIfAbsent(key, k -> new BucketAppend(driverId, resolution, bucketStart, new ArrayList<>(), expireAt))
+            .getPoints().add(point);
+    }
+
+    // Points of one driver between two instants, oldest first
+    public List<LocationPoint> getTrack(String driverId, Instant from, Instant to, HistoryResolution resolution) {
+        Instant firstBucket = from.minusMillis(resolution.getBucketMillis());
+        List<LocationPoint> track = new ArrayList<>();
+        for (DriverLocationBucket bucket : bucketRepository
+                .findByDriverIdAndResolutionAndBucketStartBetweenOrderByBucketStartAsc(driverId, resolution, firstBucket, to)) {
+            for (LocationPoint point : bucket.getPoints()) {
+                if (!point.getT().isBefore(from) && !point.getT().isAfter(to)) {
+                    track.add(point);
+                }
+            }
+        }
+        track.sort((a, b) -> a.getT().compareTo(b.getT()));
+        return track;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @AllArgsConstructor
+    private static class PendingPoint {
+        private final String driverId;
+        private final LocationPoint point;
+    }
+}
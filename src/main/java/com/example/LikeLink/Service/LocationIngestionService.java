@@ -0,0 +1,88 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Model.LocationFix;
+import com.example.LikeLink.Repository.AmbulanceDriverRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces driver location pings into one bulk write per flush interval.
+ *
+ * Only the latest ping per driver is kept, so a driver pinging several times inside a window
+ * costs a single $set of currentLocation/updatedAt instead of a read plus a full-document save
+ * per ping. Readers of the driver document see positions up to one interval old; the in-process
+ * spatial index is updated on every ping and is not affected. Each position is stored with the
+ * time it was received (locationUpdatedAt), not the flush time, so readers can tell which of the
+ * document and an instance's in-memory fix is newer.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LocationIngestionService {
+
+    private final AmbulanceDriverRepository driverRepository;
+
+    private final Map<String, LocationFix> latestByDriver = new ConcurrentHashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    public void submit(String driverId, Location location) {
+        latestByDriver.put(driverId, new LocationFix(location, Instant.now()));
+        received.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${location.ingest.flush-interval-ms:1000}")
+    public void flush() {
+        if (latestByDriver.isEmpty()) {
+            return;
+        }
+
+        Map<String, LocationFix> batch = new HashMap<>();
+        for (Map.Entry<String, LocationFix> entry : latestByDriver.entrySet()) {
+            // A newer ping that arrived meanwhile stays buffered for the next flush
+            if (latestByDriver.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            int matched = driverRepository.bulkUpdateLocations(batch, LocalDateTime.now());
+            written.addAndGet(batch.size());
+            log.debug("Flushed {} driver locations ({} matched), {} pings received / {} written so far",
+                batch.size(), matched, received.get(), written.get());
+        } catch (Exception e) {
+            log.error("Failed to flush {} driver locations: {}", batch.size(), e.getMessage(), e);
+            // Put back anything that has not been superseded so the next flush retries it
+            batch.forEach(latestByDriver::putIfAbsent);
+        }
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
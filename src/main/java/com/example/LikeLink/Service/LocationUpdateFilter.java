@@ -0,0 +1,144 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.LikeLink.Util.GeoDistance;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides per driver ping whether it is worth persisting.
+ *
+ * A ping within the movement threshold of the last persisted position is STATIONARY and only
+ * counts as a presence heartbeat. A ping that the straight-line extrapolation of the last
+ * two persisted positions already predicts is PREDICTED: it still moves the driver on the live
+ * map but skips Mongo. Anything else, or the first ping after max-silence, is persisted.
+ * Tracks silent for longer than max-silence would accept the next ping anyway and are dropped.
+ */
+@Component
+@Slf4j
+public class LocationUpdateFilter {
+
+    public enum Decision {
+        ACCEPT,
+        STATIONARY,
+        PREDICTED
+    }
+
+    @Value("${location.filter.min-movement-m:20}")
+    private double minMovementMeters;
+
+    @Value("${location.filter.dead-reckoning-tolerance-m:30}")
+    private double deadReckoningToleranceMeters;
+
+    @Value("${location.filter.max-silence-ms:60000}")
+    private long maxSilenceMs;
+
+    // Wall clock in milliseconds, replaced in tests
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<String, Track> tracks = new ConcurrentHashMap<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder stationary = new LongAdder();
+    private final LongAdder predicted = new LongAdder();
+
+    public Decision evaluate(String driverId, double latitude, double longitude) {
+        Track track = tracks.get(driverId);
+        if (track == null) {
+            return Decision.ACCEPT;
+        }
+        long now = clock.getAsLong();
+        Decision decision = track.evaluate(latitude, longitude, now);
+        switch (decision) {
+            case STATIONARY -> stationary.increment();
+            case PREDICTED -> predicted.increment();
+            default -> { }
+        }
+        return decision;
+    }
+
+    // Records a ping that was persisted
+    public void accept(String driverId, double latitude, double longitude) {
+        long now = clock.getAsLong();
+        tracks.computeIfAbsent(driverId, id -> new Track()).accept(latitude, longitude, now);
+        accepted.increment();
+    }
+
+    public void forget(String driverId) {
+        tracks.remove(driverId);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictSilent() {
+        long now = clock.getAsLong();
+        tracks.entrySet().removeIf(entry -> now - entry.getValue().acceptedAt() >= maxSilenceMs);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logStats() {
+        if (log.isDebugEnabled()) {
+            log.debug("Location filter: {} accepted, {} suppressed ({} stationary, {} predicted), {} tracked drivers",
+                getAcceptedCount(), getSuppressedCount(), stationary.sum(), predicted.sum(), tracks.size());
+        }
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getSuppressedCount() {
+        return stationary.sum() + predicted.sum();
+    }
+
+    private class Track {
+        private double latitude;
+        private double longitude;
+        private double latPerMs;
+        private double lonPerMs;
+        private long acceptedAt;
+
+        synchronized Decision evaluate(double lat, double lon, long now) {
+            long elapsed = now - acceptedAt;
+            if (elapsed >= maxSilenceMs) {
+                return Decision.ACCEPT;
+            }
+            if (GeoDistance.haversineKm(latitude, longitude, lat, lon) * 1000 < minMovementMeters) {
+                return Decision.STATIONARY;
+            }
+            if (latPerMs != 0 || lonPerMs != 0) {
+                double predictedLat = latitude + latPerMs * elapsed;
+                double predictedLon = longitude + lonPerMs * elapsed;
+                if (GeoDistance.haversineKm(predictedLat, predictedLon, lat, lon) * 1000 < deadReckoningToleranceMeters) {
+                    return Decision.PREDICTED;
+                }
+            }
+            return Decision.ACCEPT;
+        }
+
+        synchronized long acceptedAt() {
+            return acceptedAt;
+        }
+
+        synchronized void accept(double lat, double lon, long now) {
+            long elapsed = now - acceptedAt;
+            if (acceptedAt > 0 && elapsed > 0 && elapsed < maxSilenceMs) {
+                latPerMs = (lat - latitude) / elapsed;
+                lonPerMs = (lon - longitude) / elapsed;
+            } else {
+                // First fix, or too long ago to extrapolate from
+                latPerMs = 0;
+                lonPerMs = 0;
+            }
+            latitude = lat;
+            longitude = lon;
+            acceptedAt = now;
+        }
+    }
+}
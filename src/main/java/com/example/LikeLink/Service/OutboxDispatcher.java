@@ -0,0 +1,162 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Enum.OutboxStatus;
+import com.example.LikeLink.Exception.ResourceNotFoundException;
+import com.example.LikeLink.Model.BloodRequest;
+import com.example.LikeLink.Model.Booking;
+import com.example.LikeLink.Model.Hospital;
+import com.example.LikeLink.Model.IncomingPatient;
+import com.example.LikeLink.Model.OutboxEvent;
+import com.example.LikeLink.Model.Patient;
+import com.example.LikeLink.Repository.BloodRequestRepository;
+import com.example.LikeLink.Repository.BookingRepository;
+import com.example.LikeLink.Repository.HospitalRepository;
+import com.example.LikeLink.Repository.IncomingPatientRepository;
+import com.example.LikeLink.Repository.PatientRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Runs the hospital-side effects of bookings outside the request path.
+ *
+ * Each poll leases up to outbox.batch-size bookings that have a due event in one write, stamping
+ * them with a token it then reads them back by. A lease that is not released (the node died
+ * mid-batch) simply expires and another poll picks the booking up again. Handled events are
+ * removed from the booking; FAILED ones stay for inspection.
+ * Handlers write with the event id as the document id, so running an event twice overwrites the
+ * same record instead of creating a duplicate. Failures are retried with exponential backoff and
+ * parked as FAILED after outbox.max-attempts.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private final BookingRepository bookingRepository;
+    private final IncomingPatientRepository incomingPatientRepository;
+    private final BloodRequestRepository bloodRequestRepository;
+    private final PatientRepository patientRepository;
+    private final HospitalRepository hospitalRepository;
+    private final HospitalDirectory hospitalDirectory;
+    private final AuthService authService;
+
+    @Value("${outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void removeDoneEvents() {
+        long trimmed = bookingRepository.removeDoneOutboxEvents();
+        if (trimmed > 0) {
+            log.info("Removed handled outbox events from {} bookings", trimmed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            String leaseToken = UUID.randomUUID().toString();
+            List<Booking> bookings = bookingRepository.claimOutbox(
+                now, now.plus(leaseMs, ChronoUnit.MILLIS), leaseToken, batchSize);
+            for (Booking booking : bookings) {
+                process(booking, leaseToken, now);
+            }
+            if (!bookings.isEmpty()) {
+                log.debug("Dispatched outbox events for {} bookings", bookings.size());
+            }
+        } catch (Exception e) {
+            log.error("Outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void process(Booking booking, String leaseToken, LocalDateTime now) {
+        try {
+            for (OutboxEvent event : booking.getOutbox()) {
+                if (event.getStatus() != OutboxStatus.PENDING || event.getNextAttemptAt().isAfter(now)) {
+                    continue;
+                }
+                try {
+                    handle(event);
+                    bookingRepository.removeOutboxEvent(booking.getId(), event.getEventId());
+                } catch (Exception e) {
+                    scheduleRetry(booking.getId(), event, e);
+                }
+            }
+        } finally {
+            bookingRepository.releaseOutboxLease(booking.getId(), leaseToken);
+        }
+    }
+
+    private void handle(OutboxEvent event) {
+        switch (event.getType()) {
+            case INCOMING_PATIENT -> incomingPatientRepository.save(
+                new IncomingPatient(event.getEventId(), event.getUserId(), event.getHospitalId()));
+            case BLOOD_REQUEST -> saveBloodRequest(event);
+        }
+    }
+
+    // Only patients with a medical profile have a blood type to request
+    private void saveBloodRequest(OutboxEvent event) {
+        String userEmail = authService.getEmailByUserId(event.getUserId());
+        Optional<Patient> patient = userEmail == null ? Optional.empty() : patientRepository.findByEmail(userEmail);
+        if (patient.isEmpty()) {
+            return;
+        }
+
+        Hospital hospital = hospitalDirectory.findById(event.getHospitalId())
+            .or(() -> hospitalRepository.findById(event.getHospitalId()))
+            .orElseThrow(() -> new ResourceNotFoundException("Hospital not found"));
+
+        bloodRequestRepository.save(BloodRequest.builder()
+            .id(event.getEventId())
+            .hospitalId(hospital.getId())
+            .hospitalName(hospital.getHospitalName())
+            .phoneNumber(hospital.getPhoneNumber())
+            .address(hospital.getAddress())
+            .bloodType(patient.get().getBloodType().toString())
+            .status("PENDING")
+            .build());
+    }
+
+    private void scheduleRetry(String bookingId, OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Outbox event {} ({}) of booking {} failed {} times, giving up: {}",
+                event.getEventId(), event.getType(), bookingId, attempts, error.getMessage());
+            bookingRepository.markOutboxRetry(bookingId, event.getEventId(), OutboxStatus.FAILED,
+                attempts, event.getNextAttemptAt(), error.getMessage());
+            return;
+        }
+
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        log.warn("Outbox event {} ({}) of booking {} failed, retrying in {}ms: {}",
+            event.getEventId(), event.getType(), bookingId, backoffMs, error.getMessage());
+        bookingRepository.markOutboxRetry(bookingId, event.getEventId(), OutboxStatus.PENDING,
+            attempts, LocalDateTime.now().plus(backoffMs, ChronoUnit.MILLIS), error.getMessage());
+    }
+}
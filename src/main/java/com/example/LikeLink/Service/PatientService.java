@@ -14,7 +14,6 @@ import com.example.LikeLink.Model.Medication;
 import com.example.LikeLink.Model.PastSurgery;
 import com.example.LikeLink.Model.Patient;
 import com.example.LikeLink.Repository.PatientRepository;
-import com.example.LikeLink.Repository.UserRepository;
 import com.example.LikeLink.dto.request.EmergencyContactDto;
 import com.example.LikeLink.dto.request.MedicationDto;
 import com.example.LikeLink.dto.request.PastSurgeryDto;
@@ -33,15 +32,12 @@ import lombok.extern.slf4j.Slf4j;
 public class PatientService {
 
     private final PatientRepository patientRepository;
-    private final UserRepository userRepository;
 
+    // email is the authenticated principal's, so the user is known to exist
     @Transactional
     public PatientResponse createProfile(PatientRequest request, String email) {
         log.debug("Creating patient profile for email: {}", email);
 
-        userRepository.findByEmail(email)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-
         if (patientRepository.existsByEmail(email)) {
             throw new IllegalStateException("Profile already exists for user with email: " + email);
         }
@@ -0,0 +1,173 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Enum.BookingStatus;
+import com.example.LikeLink.Event.BookingStatusChangedEvent;
+import com.example.LikeLink.Event.DriverLocationChangedEvent;
+import com.example.LikeLink.Exception.DriverNotFoundException;
+import com.example.LikeLink.Exception.ResourceNotFoundException;
+import com.example.LikeLink.Model.AmbulanceDriver;
+import com.example.LikeLink.Model.Booking;
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Model.LocationFix;
+import com.example.LikeLink.Repository.ReactiveAmbulanceDriverRepository;
+import com.example.LikeLink.Repository.ReactiveBookingRepository;
+import com.example.LikeLink.dto.response.DriverLocationEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking location ingest and tracking, enabled with the "reactive" profile.
+ *
+ * Mongo is only read through the reactive repositories. Positions come from the in-memory presence
+ * registry or the driver document, whichever is newer, since another instance may hold the
+ * latest ping. Live streams hang off one multicast sink per tracked driver. Every
+ * subscriber keeps just the latest position when it falls behind, so a slow client never
+ * buffers a backlog and never holds a thread. A booking's stream completes once the booking is
+ * COMPLETED or CANCELLED. Location ingest still goes through the blocking DriverLocationService,
+ * so that part runs on the boundedElastic scheduler, never on the caller's thread.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveTrackingService {
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    // Catches bookings finished on another node, where no local event fires
+    private static final Duration STATUS_CHECK_INTERVAL = Duration.ofSeconds(30);
+
+    private final ReactiveAmbulanceDriverRepository driverRepository;
+    private final ReactiveBookingRepository bookingRepository;
+    private final DriverLocationService driverLocationService;
+    private final DriverPresenceRegistry presenceRegistry;
+
+    private final Map<String, String> driverIdsByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Sinks.Many<DriverLocationEvent>> sinks = new ConcurrentHashMap<>();
+    private final Map<String, Sinks.One<BookingStatus>> bookingEnds = new ConcurrentHashMap<>();
+
+    public Mono<Location> updateLocation(String email, Location location) {
+        return resolveDriverId(email)
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(driverId -> driverLocationService.updateDriverLocation(
+                driverId, location.getLatitude(), location.getLongitude()))
+            .thenReturn(location);
+    }
+
+    // Same rule as BookingService.getDriverLocation: whichever of the local fix and the document is newer
+    public Mono<Location> getDriverLocation(String driverId) {
+        LocationFix fix = presenceRegistry.getLastFix(driverId);
+        return driverRepository.findById(driverId)
+            .filter(driver -> driver.getCurrentLocation() != null)
+            .filter(driver -> fix == null || !fix.isNewerThan(driver.getLocationUpdatedAt()))
+            .map(AmbulanceDriver::getCurrentLocation)
+            .switchIfEmpty(Mono.justOrEmpty(fix).map(LocationFix::getLocation))
+            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Driver location not found")));
+    }
+
+    public Flux<ServerSentEvent<DriverLocationEvent>> streamDriverLocation(String driverId) {
+        return stream(driverId, null);
+    }
+
+    public Flux<ServerSentEvent<DriverLocationEvent>> streamBookingLocation(String bookingId) {
+        return bookingRepository.findById(bookingId)
+            .filter(booking -> booking.getDriverId() != null)
+            .switchIfEmpty(Mono.error(new ResourceNotFoundException("Booking not found with id: " + bookingId)))
+            .flatMapMany(booking -> {
+                Flux<ServerSentEvent<DriverLocationEvent>> locations = stream(booking.getDriverId(), bookingId);
+                // A finished booking still gets its last known position, then the stream ends
+                return booking.isActive()
+                    ? locations.takeUntilOther(bookingEnded(bookingId)).doFinally(signal -> releaseBookingEnd(bookingId))
+                    : locations.take(1);
+            });
+    }
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.getBooking();
+        if (!booking.isActive()) {
+            Sinks.One<BookingStatus> end = bookingEnds.remove(booking.getId());
+            if (end != null) {
+                end.tryEmitValue(booking.getStatus());
+            }
+        }
+    }
+
+    @EventListener
+    public void onDriverLocationChanged(DriverLocationChangedEvent event) {
+        Sinks.Many<DriverLocationEvent> sink = sinks.get(event.getDriverId());
+        if (sink != null) {
+            Location location = event.getLocation();
+            // Best effort: subscribers without demand skip this ping and catch the next one
+            sink.tryEmitNext(new DriverLocationEvent(event.getDriverId(), null,
+                location.getLatitude(), location.getLongitude(), System.currentTimeMillis()));
+        }
+    }
+
+    private Flux<ServerSentEvent<DriverLocationEvent>> stream(String driverId, String bookingId) {
+        Flux<DriverLocationEvent> initial = getDriverLocation(driverId)
+            .map(location -> new DriverLocationEvent(driverId, bookingId,
+                location.getLatitude(), location.getLongitude(), System.currentTimeMillis()))
+            .onErrorResume(ResourceNotFoundException.class, e -> Mono.empty())
+            .flux();
+
+        Flux<DriverLocationEvent> live = Flux.defer(() -> sinkFor(driverId).asFlux())
+            .map(event -> bookingId == null ? event
+                : new DriverLocationEvent(driverId, bookingId, event.getLatitude(), event.getLongitude(), event.getTimestamp()))
+            .onBackpressureLatest();
+
+        Flux<ServerSentEvent<DriverLocationEvent>> locations = initial.concatWith(live)
+            .map(event -> ServerSentEvent.builder(event).event("location").build());
+        Flux<ServerSentEvent<DriverLocationEvent>> heartbeats = Flux.interval(HEARTBEAT_INTERVAL)
+            .map(tick -> ServerSentEvent.<DriverLocationEvent>builder().comment("heartbeat").build());
+
+        return Flux.merge(locations, heartbeats);
+    }
+
+    // Emits once the booking is terminal: from the local status event, or the periodic re-check
+    private Mono<BookingStatus> bookingEnded(String bookingId) {
+        Mono<BookingStatus> local = bookingEnds.computeIfAbsent(bookingId, id -> Sinks.one()).asMono();
+        Mono<BookingStatus> polled = Flux.interval(STATUS_CHECK_INTERVAL)
+            .concatMap(tick -> bookingRepository.findById(bookingId))
+            .filter(booking -> !booking.isActive())
+            .map(Booking::getStatus)
+            .next();
+        return Mono.firstWithValue(local, polled);
+    }
+
+    private void releaseBookingEnd(String bookingId) {
+        bookingEnds.computeIfPresent(bookingId, (id, end) -> end.currentSubscriberCount() == 0 ? null : end);
+    }
+
+    private Mono<String> resolveDriverId(String email) {
+        String cached = driverIdsByEmail.get(email);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return driverRepository.findByEmail(email)
+            .switchIfEmpty(Mono.error(new DriverNotFoundException("Driver not found for email: " + email)))
+            .map(driver -> {
+                driverIdsByEmail.put(email, driver.getId());
+                return driver.getId();
+            });
+    }
+
+    // Kept for the life of the process: at most one small sink per driver that was ever tracked
+    private Sinks.Many<DriverLocationEvent> sinkFor(String driverId) {
+        return sinks.computeIfAbsent(driverId,
+            id -> Sinks.many().multicast().directBestEffort());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Model.Location;
+import com.example.LikeLink.Util.GeoDistance;
+import com.example.LikeLink.Util.RoadGraph;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Travel time estimates over the road graph configured in routing.graph-file.
+ *
+ * Both ends are snapped to the nearest graph node and the gap to the node is covered at the
+ * fallback speed. Without a graph, or when a point cannot be snapped or routed, the estimate
+ * falls back to straight-line distance at the fallback speed.
+ */
+@Service
+@Slf4j
+public class RoutingService {
+
+    @Value("${routing.graph-file:}")
+    private String graphFile;
+
+    @Value("${routing.search-threads:0}")
+    private int searchThreads;
+
+    @Value("${routing.fallback-speed-kmh:40}")
+    private double fallbackSpeedKmh;
+
+    private volatile RoadGraph graph;
+
+    @PostConstruct
+    public void loadGraph() {
+        if (graphFile == null || graphFile.isBlank()) {
+            log.info("No road graph configured, ETAs use straight-line distance at {} km/h", fallbackSpeedKmh);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            int concurrency = searchThreads > 0 ? searchThreads : Runtime.getRuntime().availableProcessors();
+            graph = RoadGraph.load(Path.of(graphFile), concurrency);
+            log.info("Loaded road graph {} with {} nodes and {} edges in {}ms", graphFile,
+                graph.nodeCount(), graph.edgeCount(), (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Failed to load road graph {}, falling back to straight-line ETAs: {}", graphFile, e.getMessage());
+        }
+    }
+
+    public boolean isGraphLoaded() {
+        return graph != null;
+    }
+
+    public int estimateMinutes(Location from, Location to) {
+        return (int) Math.ceil(estimateTravelTimeMs(from, to) / 60_000.0);
+    }
+
+    public long estimateTravelTimeMs(Location from, Location to) {
+        RoadGraph roadGraph = graph;
+        if (roadGraph != null) {
+            int source = roadGraph.nearestNode(from.getLatitude(), from.getLongitude());
+            int target = roadGraph.nearestNode(to.getLatitude(), to.getLongitude());
+            if (source >= 0 && target >= 0) {
+                int routedMs = roadGraph.travelTimeMs(source, target);
+                if (routedMs != RoadGraph.UNREACHABLE) {
+                    return routedMs
+                        + straightLineMs(from.getLatitude(), from.getLongitude(),
+                            roadGraph.nodeLatitude(source), roadGraph.nodeLongitude(source))
+                        + straightLineMs(roadGraph.nodeLatitude(target), roadGraph.nodeLongitude(target),
+                            to.getLatitude(), to.getLongitude());
+                }
+            }
+        }
+        return straightLineMs(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+
+    private long straightLineMs(double fromLat, double fromLon, double toLat, double toLon) {
+        return (long) (GeoDistance.haversineKm(fromLat, fromLon, toLat, toLon) / fallbackSpeedKmh * 3_600_000);
+    }
+}
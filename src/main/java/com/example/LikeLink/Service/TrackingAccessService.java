@@ -0,0 +1,76 @@
+package com.example.LikeLink.Service;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Config.Security.Service.UserDetailsImpl;
+import com.example.LikeLink.Model.AmbulanceDriver;
+import com.example.LikeLink.Model.Booking;
+import com.example.LikeLink.Repository.AmbulanceDriverRepository;
+import com.example.LikeLink.Repository.BookingRepository;
+import com.example.LikeLink.Repository.HospitalRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decides who may subscribe to a tracking topic. A booking's location stream is visible to the
+ * patient who booked it, the driver assigned to it and the destination hospital's account; a
+ * driver's stream to the driver and to patients with an active booking on that driver. Every
+ * other destination is refused.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrackingAccessService {
+
+    private static final Pattern BOOKING_TOPIC = Pattern.compile("^/topic/bookings/([^/]+)/location$");
+    private static final Pattern DRIVER_TOPIC = Pattern.compile("^/topic/drivers/([^/]+)/location$");
+
+    private final BookingRepository bookingRepository;
+    private final AmbulanceDriverRepository driverRepository;
+    private final HospitalRepository hospitalRepository;
+
+    public boolean canSubscribe(UserDetailsImpl principal, String destination) {
+        if (destination == null) {
+            return false;
+        }
+        Matcher booking = BOOKING_TOPIC.matcher(destination);
+        if (booking.matches()) {
+            return bookingRepository.findById(booking.group(1))
+                .map(found -> canTrackBooking(principal, found))
+                .orElse(false);
+        }
+        Matcher driver = DRIVER_TOPIC.matcher(destination);
+        if (driver.matches()) {
+            return canTrackDriver(principal, driver.group(1));
+        }
+        return false;
+    }
+
+    private boolean canTrackBooking(UserDetailsImpl principal, Booking booking) {
+        if (principal.getId().equals(booking.getUserId())) {
+            return true;
+        }
+        if (booking.getDriverId() != null && isDriver(principal, booking.getDriverId())) {
+            return true;
+        }
+        return booking.getHospitalId() != null && hospitalRepository.findById(booking.getHospitalId())
+            .map(hospital -> principal.getId().equals(hospital.getUserId()))
+            .orElse(false);
+    }
+
+    private boolean canTrackDriver(UserDetailsImpl principal, String driverId) {
+        if (isDriver(principal, driverId)) {
+            return true;
+        }
+        return bookingRepository.findActiveBookingsByUserId(principal.getId()).stream()
+            .anyMatch(booking -> driverId.equals(booking.getDriverId()));
+    }
+
+    private boolean isDriver(UserDetailsImpl principal, String driverId) {
+        Optional<AmbulanceDriver> driver = driverRepository.findById(driverId);
+        return driver.isPresent() && driver.get().getEmail().equals(principal.getEmail());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.LikeLink.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.LikeLink.Model.User;
+import com.example.LikeLink.Repository.UserRepository;
+import com.example.LikeLink.Util.SegmentedLruCache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache of users by id and by email, shared by login, token refresh and every
+ * service that turns an email into a user id.
+ *
+ * Both lookups fill both indexes. Writes go through save(), which writes Mongo first and then
+ * replaces the cached entry, dropping the old email mapping if it changed. Entries expire after
+ * user.identity-cache.ttl-seconds, which bounds how long another node's write can go unseen.
+ * Misses are not cached, so a user who just signed up is found on the next lookup. Returned
+ * users are shared and must be treated as read-only.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${user.identity-cache.max-entries:20000}")
+    private int maxEntries;
+
+    @Value("${user.identity-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private SegmentedLruCache<String, User> byId;
+    private SegmentedLruCache<String, User> byEmail;
+
+    @PostConstruct
+    public void init() {
+        byId = new SegmentedLruCache<>(maxEntries);
+        byEmail = new SegmentedLruCache<>(maxEntries);
+    }
+
+    public Optional<User> findById(String id) {
+        User cached = lookup(byId, id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findById(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public Optional<User> findByEmail(String email) {
+        User cached = lookup(byEmail, email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<User> loaded = userRepository.findByEmail(email);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public User save(User user) {
+        if (user.getId() != null) {
+            invalidate(user.getId());
+        }
+        User saved = userRepository.save(user);
+        put(saved);
+        return saved;
+    }
+
+    public void invalidate(String id) {
+        User removed = byId.remove(id);
+        if (removed != null) {
+            byEmail.remove(removed.getEmail());
+        }
+    }
+
+    public long getHitCount() {
+        return byId.getHitCount() + byEmail.getHitCount();
+    }
+
+    public long getMissCount() {
+        return byId.getMissCount() + byEmail.getMissCount();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void logStats() {
+        if (log.isDebugEnabled()) {
+            log.debug("User identity cache: {} hits, {} misses, hit rate {}", getHitCount(), getMissCount(),
+                String.format("%.3f", getHitRate()));
+        }
+    }
+
+    private User lookup(SegmentedLruCache<String, User> index, String key) {
+        return key == null ? null : index.get(key, System.currentTimeMillis());
+    }
+
+    private void put(User user) {
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        User previous = byId.put(user.getId(), user, expiresAt);
+        if (previous != null && !previous.getEmail().equals(user.getEmail())) {
+            byEmail.remove(previous.getEmail());
+        }
+        byEmail.put(user.getEmail(), user, expiresAt);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.LikeLink.Util;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-total-cost assignment of rows to columns (Hungarian algorithm with potentials).
+ *
+ * Runs in O(n^2 * m) for n rows and m columns with n <= m, on primitive arrays only, which
+ * keeps a few hundred requests against a few hundred drivers well inside a dispatch window.
+ */
+public final class AssignmentSolver {
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * @param cost cost[row][column]; all rows must have the same length
+     * @return for each row the assigned column, or -1 when there are fewer columns than rows
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int columns = cost[0].length;
+        if (columns == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        if (rows <= columns) {
+            return solveRowsNotMoreThanColumns(cost, rows, columns, false);
+        }
+
+        // More rows than columns: assign every column to a row instead, leaving some rows empty
+        int[] columnToRow = solveRowsNotMoreThanColumns(cost, columns, rows, true);
+        int[] rowToColumn = new int[rows];
+        Arrays.fill(rowToColumn, -1);
+        for (int column = 0; column < columns; column++) {
+            rowToColumn[columnToRow[column]] = column;
+        }
+        return rowToColumn;
+    }
+
+    private static int[] solveRowsNotMoreThanColumns(double[][] cost, int n, int m, boolean transposed) {
+        // 1-based potentials and matching as in the classic formulation; column 0 is a sentinel
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] match = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            match[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = match[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double c = transposed ? cost[j - 1][i0 - 1] : cost[i0 - 1][j - 1];
+                    double reduced = c - u[i0] - v[j];
+                    if (reduced < minv[j]) {
+                        minv[j] = reduced;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (match[j0] != 0);
+
+            do {
+                int j1 = way[j0];
+                match[j0] = match[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] result = new int[n];
+        Arrays.fill(result, -1);
+        for (int j = 1; j <= m; j++) {
+            if (match[j] != 0) {
+                result[match[j] - 1] = j - 1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.LikeLink.Util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over 128-bit keys, safe for concurrent adds and lookups without locks.
+ *
+ * Callers pass two independent 64-bit halves of an already uniform hash (e.g. a SHA-256
+ * prefix); the k probe positions come from double hashing h1 + i * h2. Bits are only ever set,
+ * so to drop keys build a new filter and swap it in.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) >>> 6));
+        this.words = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void add(long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    // False means definitely absent, true means probably present
+    public boolean mightContain(long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.LikeLink.Util;
+
+/**
+ * Shared distance kernels for ranking drivers and hospitals around a point.
+ *
+ * Ranking many candidates against one fixed point should go through a {@link Query}: it
+ * converts the query point to radians and caches its cos(lat) once, rejects candidates with
+ * a {@link Box} before any trig, and only pays for haversine on the survivors.
+ */
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEG_LAT = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    public enum Precision {
+        // Equirectangular projection, within a fraction of a percent at city scale
+        FAST,
+        // Great-circle distance via haversine
+        EXACT
+    }
+
+    private GeoDistance() {
+    }
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat +
+                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static Query from(double latitude, double longitude) {
+        return new Query(latitude, longitude);
+    }
+
+    /**
+     * An immutable query point with its trig precomputed; create one per lookup and reuse it
+     * across all candidates.
+     */
+    public static final class Query {
+
+        private final double latitude;
+        private final double longitude;
+        private final double latRad;
+        private final double cosLat;
+
+        private Query(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.latRad = Math.toRadians(latitude);
+            this.cosLat = Math.cos(latRad);
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public double distanceKm(double lat, double lon, Precision precision) {
+            return precision == Precision.FAST ? approximateKm(lat, lon) : haversineKm(lat, lon);
+        }
+
+        public double haversineKm(double lat, double lon) {
+            double dLat = Math.toRadians(lat - latitude);
+            double dLon = Math.toRadians(normalizeLonDelta(lon - longitude));
+            double sinLat = Math.sin(dLat / 2);
+            double sinLon = Math.sin(dLon / 2);
+            double a = sinLat * sinLat + cosLat * Math.cos(Math.toRadians(lat)) * sinLon * sinLon;
+            return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+        }
+
+        // Equirectangular projection scaled by the query's own cos(lat), so no trig per candidate
+        public double approximateKm(double lat, double lon) {
+            double x = normalizeLonDelta(lon - longitude) * cosLat;
+            double y = lat - latitude;
+            return KM_PER_DEG_LAT * Math.sqrt(x * x + y * y);
+        }
+
+        // Bounding box around this point, computed once per radius and checked without trig
+        public Box box(double radiusKm) {
+            double latSpan = radiusKm / KM_PER_DEG_LAT;
+            // Widest longitude span within the box is at the latitude closest to a pole
+            double edgeCos = Math.cos(Math.toRadians(Math.min(90.0, Math.abs(latitude) + latSpan)));
+            double lonSpan = edgeCos <= 0 ? 180.0 : Math.min(180.0, latSpan / edgeCos);
+            return new Box(this, latSpan, lonSpan);
+        }
+
+        public boolean isWithin(double lat, double lon, double radiusKm) {
+            return box(radiusKm).contains(lat, lon) && haversineKm(lat, lon) <= radiusKm;
+        }
+
+        /**
+         * Distances from this point to each (lats[i], lons[i]) for i in [0, count), written to out.
+         */
+        public void distancesKm(double[] lats, double[] lons, int count, double[] out, Precision precision) {
+            if (precision == Precision.FAST) {
+                for (int i = 0; i < count; i++) {
+                    out[i] = approximateKm(lats[i], lons[i]);
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    out[i] = haversineKm(lats[i], lons[i]);
+                }
+            }
+        }
+
+        /**
+         * Indexes of the points within radiusKm, with their exact distances. Points outside the
+         * bounding box never reach haversine.
+         *
+         * @return number of entries written to outIndexes and outKm
+         */
+        public int filterWithin(double[] lats, double[] lons, int count, double radiusKm,
+                                int[] outIndexes, double[] outKm) {
+            Box box = box(radiusKm);
+            int found = 0;
+            for (int i = 0; i < count; i++) {
+                if (!box.contains(lats[i], lons[i])) {
+                    continue;
+                }
+                double distance = haversineKm(lats[i], lons[i]);
+                if (distance <= radiusKm) {
+                    outIndexes[found] = i;
+                    outKm[found] = distance;
+                    found++;
+                }
+            }
+            return found;
+        }
+
+    }
+
+    /**
+     * Latitude/longitude spans around a query point. A point outside the box is certainly further
+     * than the radius it was built for; a point inside still needs an exact check.
+     */
+    public static final class Box {
+
+        private final Query center;
+        private final double latSpan;
+        private final double lonSpan;
+
+        private Box(Query center, double latSpan, double lonSpan) {
+            this.center = center;
+            this.latSpan = latSpan;
+            this.lonSpan = lonSpan;
+        }
+
+        public boolean contains(double lat, double lon) {
+            return Math.abs(lat - center.latitude) <= latSpan
+                && Math.abs(normalizeLonDelta(lon - center.longitude)) <= lonSpan;
+        }
+    }
+
+    private static double normalizeLonDelta(double delta) {
+        if (delta > 180.0) {
+            return delta - 360.0;
+        }
+        if (delta < -180.0) {
+            return delta + 360.0;
+        }
+        return delta;
+    }
+}
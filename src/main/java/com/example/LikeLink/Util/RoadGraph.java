@@ -0,0 +1,357 @@
+package com.example.LikeLink.Util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Read-only road graph in compressed sparse row form, memory-mapped from a preprocessed file.
+ *
+ * File layout, little endian:
+ *   int magic "LLRG", int version, int nodeCount, int edgeCount, float maxSpeedKmh
+ *   int[nodeCount]     node latitude in microdegrees
+ *   int[nodeCount]     node longitude in microdegrees
+ *   int[nodeCount + 1] index of the first outgoing edge of each node
+ *   int[edgeCount]     edge target node
+ *   int[edgeCount]     edge travel time in milliseconds
+ *
+ * The arrays stay in the page cache instead of on the heap, so loading is one mapping plus a
+ * pass to build the snapping grid. Queries run A* with straight-line distance at maxSpeedKmh
+ * as the heuristic, which is exact as long as no edge is faster than that. Search state is
+ * borrowed from a fixed pool, so a warm graph answers queries without allocating.
+ */
+public final class RoadGraph {
+
+    public static final int UNREACHABLE = -1;
+
+    private static final int MAGIC = 0x4C4C5247;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final double MICRODEGREES = 1_000_000.0;
+    private static final double CELL_DEG = 0.01;
+    private static final int SNAP_RINGS = 2; // nodes up to ~2 km away can be snapped to
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final double msPerKm;
+    private final IntBuffer latitudes;
+    private final IntBuffer longitudes;
+    private final IntBuffer firstEdge;
+    private final IntBuffer edgeTarget;
+    private final IntBuffer edgeTimeMs;
+    // (cell key << 32) | node, sorted, so the nodes of a cell are one contiguous run
+    private final long[] cellIndex;
+    private final BlockingQueue<SearchState> searchStates;
+
+    private RoadGraph(ByteBuffer data, int nodeCount, int edgeCount, double maxSpeedKmh, int concurrency) {
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.msPerKm = 3_600_000.0 / maxSpeedKmh;
+
+        int offset = HEADER_BYTES;
+        this.latitudes = ints(data, offset, nodeCount);
+        offset += nodeCount * Integer.BYTES;
+        this.longitudes = ints(data, offset, nodeCount);
+        offset += nodeCount * Integer.BYTES;
+        this.firstEdge = ints(data, offset, nodeCount + 1);
+        offset += (nodeCount + 1) * Integer.BYTES;
+        this.edgeTarget = ints(data, offset, edgeCount);
+        offset += edgeCount * Integer.BYTES;
+        this.edgeTimeMs = ints(data, offset, edgeCount);
+
+        this.cellIndex = new long[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            cellIndex[node] = (cellKey(nodeLatitude(node), nodeLongitude(node)) << 32) | node;
+        }
+        Arrays.sort(cellIndex);
+
+        this.searchStates = new ArrayBlockingQueue<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            searchStates.add(new SearchState(nodeCount));
+        }
+    }
+
+    /**
+     * @param concurrency number of queries that can run at the same time; more callers wait
+     */
+    public static RoadGraph load(Path path, int concurrency) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Unsupported road graph file size: " + size);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException("Not a version " + VERSION + " road graph: " + path);
+            }
+            int nodeCount = mapped.getInt(8);
+            int edgeCount = mapped.getInt(12);
+            float maxSpeedKmh = mapped.getFloat(16);
+            long expected = HEADER_BYTES + Integer.BYTES * (3L * nodeCount + 1 + 2L * edgeCount);
+            if (nodeCount < 0 || edgeCount < 0 || maxSpeedKmh <= 0 || expected != size) {
+                throw new IOException("Corrupt road graph header: " + path);
+            }
+
+            RoadGraph graph = new RoadGraph(mapped, nodeCount, edgeCount, maxSpeedKmh, Math.max(1, concurrency));
+            graph.validate(path);
+            return graph;
+        }
+    }
+
+    // One pass over the arrays, so a corrupt file fails here instead of as a wrong route or an IndexOutOfBounds mid-query
+    private void validate(Path path) throws IOException {
+        for (int node = 0; node < nodeCount; node++) {
+            int lat = latitudes.get(node);
+            int lon = longitudes.get(node);
+            if (Math.abs(lat) > 90 * MICRODEGREES || Math.abs(lon) > 180 * MICRODEGREES) {
+                throw new IOException("Corrupt road graph: node " + node + " is off the globe in " + path);
+            }
+        }
+        if (firstEdge.get(0) != 0 || firstEdge.get(nodeCount) != edgeCount) {
+            throw new IOException("Corrupt road graph adjacency: offsets must run from 0 to " + edgeCount + " in " + path);
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            if (firstEdge.get(node + 1) < firstEdge.get(node)) {
+                throw new IOException("Corrupt road graph adjacency: offsets decrease at node " + node + " in " + path);
+            }
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            int target = edgeTarget.get(edge);
+            if (target < 0 || target >= nodeCount) {
+                throw new IOException("Corrupt road graph: edge " + edge + " targets node " + target + " in " + path);
+            }
+            if (edgeTimeMs.get(edge) < 0) {
+                throw new IOException("Corrupt road graph: edge " + edge + " has a negative travel time in " + path);
+            }
+        }
+    }
+
+    // Writes the file format read by load; edges must be grouped by source node
+    public static void write(Path path, double[] lats, double[] lons, int[] firstEdge, int[] edgeTarget,
+                             int[] edgeTimeMs, double maxSpeedKmh) throws IOException {
+        int nodeCount = lats.length;
+        int edgeCount = edgeTarget.length;
+        ByteBuffer buffer = ByteBuffer
+            .allocate(Math.toIntExact(HEADER_BYTES + Integer.BYTES * (3L * nodeCount + 1 + 2L * edgeCount)))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(nodeCount).putInt(edgeCount).putFloat((float) maxSpeedKmh);
+        for (double lat : lats) {
+            buffer.putInt((int) Math.round(lat * MICRODEGREES));
+        }
+        for (double lon : lons) {
+            buffer.putInt((int) Math.round(lon * MICRODEGREES));
+        }
+        for (int edge : firstEdge) {
+            buffer.putInt(edge);
+        }
+        for (int target : edgeTarget) {
+            buffer.putInt(target);
+        }
+        for (int time : edgeTimeMs) {
+            buffer.putInt(time);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public double nodeLatitude(int node) {
+        return latitudes.get(node) / MICRODEGREES;
+    }
+
+    public double nodeLongitude(int node) {
+        return longitudes.get(node) / MICRODEGREES;
+    }
+
+    // Closest node to a point, or -1 when nothing is within snapping range
+    public int nearestNode(double latitude, double longitude) {
+        long latCell = (long) Math.floor((latitude + 90.0) / CELL_DEG);
+        long lonCell = (long) Math.floor((longitude + 180.0) / CELL_DEG);
+        int best = -1;
+        double bestKm = Double.MAX_VALUE;
+
+        for (long dLat = -SNAP_RINGS; dLat <= SNAP_RINGS; dLat++) {
+            for (long dLon = -SNAP_RINGS; dLon <= SNAP_RINGS; dLon++) {
+                if (latCell + dLat < 0 || lonCell + dLon < 0) {
+                    continue;
+                }
+                long key = ((latCell + dLat) << 16) | (lonCell + dLon);
+                for (int i = lowerBound(key << 32); i < nodeCount && (cellIndex[i] >>> 32) == key; i++) {
+                    int node = (int) cellIndex[i];
+                    double km = GeoDistance.haversineKm(latitude, longitude, nodeLatitude(node), nodeLongitude(node));
+                    if (km < bestKm) {
+                        bestKm = km;
+                        best = node;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Shortest travel time between two nodes, or UNREACHABLE
+    public int travelTimeMs(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        SearchState state;
+        try {
+            state = searchStates.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return UNREACHABLE;
+        }
+        try {
+            return state.search(source, target);
+        } finally {
+            searchStates.add(state);
+        }
+    }
+
+    private int heuristicMs(int node, double targetLat, double targetLon) {
+        return (int) (GeoDistance.haversineKm(nodeLatitude(node), nodeLongitude(node), targetLat, targetLon) * msPerKm);
+    }
+
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = nodeCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cellIndex[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        long latCell = (long) Math.floor((latitude + 90.0) / CELL_DEG);
+        long lonCell = (long) Math.floor((longitude + 180.0) / CELL_DEG);
+        return (latCell << 16) | lonCell;
+    }
+
+    private static IntBuffer ints(ByteBuffer data, int offset, int count) {
+        return data.slice(offset, count * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    // Per-query arrays, reset by bumping a stamp instead of clearing
+    private final class SearchState {
+        private final int[] cost;
+        private final int[] reachedStamp;
+        private final int[] settledStamp;
+        private long[] heap = new long[1024]; // (f << 32) | node
+        private int heapSize;
+        private int stamp;
+
+        SearchState(int nodeCount) {
+            this.cost = new int[nodeCount];
+            this.reachedStamp = new int[nodeCount];
+            this.settledStamp = new int[nodeCount];
+        }
+
+        int search(int source, int target) {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(reachedStamp, 0);
+                Arrays.fill(settledStamp, 0);
+                stamp = 1;
+            }
+            double targetLat = nodeLatitude(target);
+            double targetLon = nodeLongitude(target);
+
+            heapSize = 0;
+            cost[source] = 0;
+            reachedStamp[source] = stamp;
+            push(((long) heuristicMs(source, targetLat, targetLon) << 32) | source);
+
+            while (heapSize > 0) {
+                int node = (int) pop();
+                if (settledStamp[node] == stamp) {
+                    continue; // stale heap entry
+                }
+                if (node == target) {
+                    return cost[node];
+                }
+                settledStamp[node] = stamp;
+
+                int nodeCost = cost[node];
+                for (int edge = firstEdge.get(node), end = firstEdge.get(node + 1); edge < end; edge++) {
+                    int next = edgeTarget.get(edge);
+                    if (settledStamp[next] == stamp) {
+                        continue;
+                    }
+                    int nextCost = nodeCost + edgeTimeMs.get(edge);
+                    if (reachedStamp[next] != stamp || nextCost < cost[next]) {
+                        reachedStamp[next] = stamp;
+                        cost[next] = nextCost;
+                        long priority = (long) nextCost + heuristicMs(next, targetLat, targetLon);
+                        push((priority << 32) | next);
+                    }
+                }
+            }
+            return UNREACHABLE;
+        }
+
+        private void push(long entry) {
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= entry) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = entry;
+        }
+
+        private long pop() {
+            long top = heap[0];
+            long last = heap[--heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
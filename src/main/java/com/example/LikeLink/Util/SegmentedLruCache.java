@@ -0,0 +1,135 @@
+package com.example.LikeLink.Util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Bounded LRU map split into independently locked segments, so concurrent callers do not
+ * serialize on one lock. Every entry carries its own expiry; an expired entry counts as a miss
+ * and is dropped when it is looked up. Eviction is per segment, so the total can fall slightly
+ * short of maxEntries when keys hash unevenly.
+ */
+public class SegmentedLruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public SegmentedLruCache(int maxEntries) {
+        int capacity = Math.max(1, maxEntries / SEGMENTS);
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(capacity);
+        }
+    }
+
+    // The cached value if it has not expired by now, otherwise null
+    public V get(K key, long now) {
+        Segment<K, V> segment = segmentFor(key);
+        Entry<V> entry = segment.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.value;
+        }
+        if (entry != null) {
+            segment.removeExpired(key, now);
+        }
+        misses.increment();
+        return null;
+    }
+
+    // Returns the value it replaced, expired or not
+    public V put(K key, V value, long expiresAt) {
+        Entry<V> previous = segmentFor(key).put(key, new Entry<>(value, expiresAt));
+        return previous == null ? null : previous.value;
+    }
+
+    public V remove(K key) {
+        Entry<V> removed = segmentFor(key).remove(key);
+        return removed == null ? null : removed.value;
+    }
+
+    // Scans every segment, meant for rare bulk invalidation
+    public int removeIf(Predicate<V> filter) {
+        int removed = 0;
+        for (Segment<K, V> segment : segments) {
+            removed += segment.removeIf(filter);
+        }
+        return removed;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    // For the owners' periodic debug log
+    public String stats() {
+        return String.format("%d hits, %d misses, hit rate %.3f", getHitCount(), getMissCount(), getHitRate());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        return segments[(key.hashCode() & Integer.MAX_VALUE) % SEGMENTS];
+    }
+
+    @AllArgsConstructor
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+    }
+
+    private static class Segment<K, V> {
+        private final Map<K, Entry<V>> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized Entry<V> get(K key) {
+            return entries.get(key);
+        }
+
+        synchronized Entry<V> put(K key, Entry<V> entry) {
+            return entries.put(key, entry);
+        }
+
+        synchronized Entry<V> remove(K key) {
+            return entries.remove(key);
+        }
+
+        // Leaves a fresh entry that a concurrent put stored in the meantime
+        synchronized void removeExpired(K key, long now) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt <= now) {
+                entries.remove(key);
+            }
+        }
+
+        synchronized int removeIf(Predicate<V> filter) {
+            int before = entries.size();
+            entries.values().removeIf(entry -> filter.test(entry.value));
+            return before - entries.size();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.LikeLink.Util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Wall-clock milliseconds per named stage of one request, safe to record from several threads.
+ * A "total" entry covers the time since the instance was created.
+ */
+public final class StageTimings {
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> stages = new ConcurrentHashMap<>();
+
+    // Runs the stage on the calling thread
+    public <T> T run(String stage, Supplier<T> work) {
+        return time(stage, work).get();
+    }
+
+    // Wraps the stage so it is timed wherever it ends up running
+    public <T> Supplier<T> time(String stage, Supplier<T> work) {
+        return () -> {
+            long started = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                stages.put(stage, (System.nanoTime() - started) / 1_000_000);
+            }
+        };
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>(stages);
+        snapshot.put("total", (System.nanoTime() - startedAt) / 1_000_000);
+        return snapshot;
+    }
+
+    // Server-Timing header value, e.g. "driver;dur=12, hospital;dur=3"
+    public static String toServerTiming(Map<String, Long> timings) {
+        StringBuilder header = new StringBuilder();
+        timings.forEach((stage, millis) -> {
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append(stage).append(";dur=").append(millis);
+        });
+        return header.toString();
+    }
+}
@@ -2,6 +2,9 @@ package com.example.LikeLink.dto.response;
 
 import com.example.LikeLink.Enum.BookingStatus;
 import com.example.LikeLink.Model.Location;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Map;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +22,10 @@ public class BookingResponse {
     private BookingStatus status;
     private String driverId;
     private Location driverLocation;
+
+    // Per-stage latency of the booking pipeline, sent as a Server-Timing header rather than in the body
+    @JsonIgnore
+    private Map<String, Long> stageTimings;
     
     public BookingResponse(String message, String bookingId, Object data, String status, 
             String driverId) {
@@ -2,9 +2,17 @@ package com.example.LikeLink.dto.response;
 
 import com.example.LikeLink.Enum.BookingStatus;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingStatusUpdate {
+    private String bookingId;
     private BookingStatus status;
+    private String driverId;
+    private Integer etaMinutes; // driver to pickup, null until the driver has reported a position
+    private long timestamp;
 }
@@ -0,0 +1,16 @@
+package com.example.LikeLink.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverLocationEvent {
+    private String driverId;
+    private String bookingId; // null on the per-driver topic
+    private double latitude;
+    private double longitude;
+    private long timestamp;
+}
@@ -0,0 +1,115 @@
+package com.example.LikeLink.Config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A burst of slow bookings next to cheap profile reads, served by Tomcat's default 200 platform
+ * threads or by virtual threads. Each Mongo round trip is modelled as a 10 ms blocking wait that
+ * holds one of maxPoolSize connections, the driver's default pool of 100, so virtual threads
+ * queue on the pool the way they would in production instead of sleeping in unbounded parallel.
+ *
+ * A booking follows BookingService.processBooking: hospital ranking runs in memory on the lookup
+ * executor while the driver is found and claimed (two round trips), then a bed reservation and
+ * the booking insert. The hospital-side records go through the outbox and are not on this path.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ExecutionMode
+ */
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int LOOKUP_THREADS = 16;
+    private static final long ROUND_TRIP_MS = 10;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"100"})
+    private int maxPoolSize;
+
+    private ExecutorService requestExecutor;
+    private ExecutorService lookupExecutor;
+    private Semaphore connections;
+
+    @Setup
+    public void setUp() {
+        connections = new Semaphore(maxPoolSize);
+        if ("virtual".equals(mode)) {
+            requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        } else {
+            requestExecutor = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            lookupExecutor = Executors.newFixedThreadPool(LOOKUP_THREADS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+        lookupExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @Group("burst")
+    @GroupThreads(600)
+    public Object booking() throws InterruptedException, ExecutionException {
+        return requestExecutor.submit(() -> {
+            CompletableFuture<Void> hospital = CompletableFuture.runAsync(() -> { }, lookupExecutor);
+            roundTrips(2); // driver documents and claim
+            hospital.join();
+            roundTrips(2); // bed reservation and booking insert
+            return Boolean.TRUE;
+        }).get();
+    }
+
+    @Benchmark
+    @Group("burst")
+    @GroupThreads(200)
+    public Object profileRead() throws InterruptedException, ExecutionException {
+        return requestExecutor.submit(() -> {
+            roundTrips(1);
+            return Boolean.TRUE;
+        }).get();
+    }
+
+    // Each round trip checks a connection out of the pool for its duration, like the driver does
+    private void roundTrips(int count) {
+        try {
+            for (int i = 0; i < count; i++) {
+                connections.acquire();
+                try {
+                    Thread.sleep(ROUND_TRIP_MS);
+                } finally {
+                    connections.release();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
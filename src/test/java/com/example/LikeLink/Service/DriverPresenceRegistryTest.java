@@ -0,0 +1,144 @@
+package com.example.LikeLink.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DriverPresenceRegistryTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+    private static final long TICK_MS = 1_000;
+    private static final long START = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private DriverSpatialIndex index;
+    private DriverPresenceRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        index = new DriverSpatialIndex();
+        registry = new DriverPresenceRegistry(index);
+        ReflectionTestUtils.setField(registry, "timeoutMs", TIMEOUT_MS);
+        ReflectionTestUtils.setField(registry, "tickMs", TICK_MS);
+        registry.clock = now::get;
+        registry.init();
+    }
+
+    @Test
+    void expiresADriverWithoutHeartbeat() {
+        registry.update("d1", 12.97, 77.59);
+
+        advanceTo(START + TIMEOUT_MS - TICK_MS);
+        assertOnline("d1");
+
+        advanceTo(START + TIMEOUT_MS + TICK_MS);
+        assertOffline("d1");
+        assertThat(registry.onlineCount()).isZero();
+    }
+
+    @Test
+    void lateHeartbeatReschedulesInsteadOfExpiring() {
+        registry.update("d1", 12.97, 77.59);
+
+        advanceTo(START + TIMEOUT_MS - 2 * TICK_MS);
+        assertThat(registry.heartbeat("d1")).isTrue();
+        long lastHeartbeat = now.get();
+
+        // The original slot comes due, but the heartbeat pushed the deadline out
+        advanceTo(START + TIMEOUT_MS + TICK_MS);
+        assertOnline("d1");
+
+        advanceTo(lastHeartbeat + TIMEOUT_MS - TICK_MS);
+        assertOnline("d1");
+
+        advanceTo(lastHeartbeat + TIMEOUT_MS + TICK_MS);
+        assertOffline("d1");
+        assertThat(registry.heartbeat("d1")).as("heartbeat after expiry needs a full update").isFalse();
+    }
+
+    @Test
+    void positionUpdatesAlsoCountAsHeartbeats() {
+        registry.update("d1", 12.97, 77.59);
+        advanceTo(START + TIMEOUT_MS / 2);
+        registry.update("d1", 12.98, 77.60);
+        long lastUpdate = now.get();
+
+        advanceTo(START + TIMEOUT_MS + TICK_MS);
+        assertOnline("d1");
+        assertThat(index.get("d1").getLatitude()).isEqualTo(12.98);
+
+        advanceTo(lastUpdate + TIMEOUT_MS + TICK_MS);
+        assertOffline("d1");
+    }
+
+    @Test
+    void catchesUpAfterMissedTicks() {
+        registry.update("d1", 12.97, 77.59);
+        now.set(START + 3 * TICK_MS);
+        registry.update("d2", 13.00, 77.60);
+
+        // The scheduler stalled: one late tick has to cover every slot it skipped
+        now.set(START + TIMEOUT_MS + 2 * TICK_MS);
+        registry.tick();
+        assertOffline("d1");
+        assertOnline("d2");
+
+        now.set(START + 3 * TICK_MS + TIMEOUT_MS + TICK_MS);
+        registry.tick();
+        assertOffline("d2");
+    }
+
+    @Test
+    void catchesUpAfterStallingLongerThanAFullTurn() {
+        registry.update("d1", 12.97, 77.59);
+        registry.update("d2", 13.00, 77.60);
+
+        now.set(START + 5 * TIMEOUT_MS);
+        registry.tick();
+
+        assertOffline("d1");
+        assertOffline("d2");
+    }
+
+    @Test
+    void markOfflineRemovesFromTheIndexAndAPingBringsTheDriverBack() {
+        registry.update("d1", 12.97, 77.59);
+        registry.markOffline("d1");
+        assertOffline("d1");
+
+        advanceTo(START + 2 * TICK_MS);
+        registry.update("d1", 12.97, 77.59);
+        assertOnline("d1");
+
+        advanceTo(START + 2 * TICK_MS + TIMEOUT_MS + TICK_MS);
+        assertOffline("d1");
+    }
+
+    @Test
+    void placeholderPositionsNeverGoOnline() {
+        assertThat(registry.update("d1", 0.0, 0.0)).isFalse();
+        assertOffline("d1");
+    }
+
+    // Moves the clock forward one tick at a time, like the scheduler would
+    private void advanceTo(long target) {
+        while (now.get() < target) {
+            now.set(Math.min(target, now.get() + TICK_MS));
+            registry.tick();
+        }
+    }
+
+    private void assertOnline(String driverId) {
+        assertThat(registry.isOnline(driverId)).as("%s online", driverId).isTrue();
+        assertThat(index.get(driverId)).as("%s indexed", driverId).isNotNull();
+    }
+
+    private void assertOffline(String driverId) {
+        assertThat(registry.isOnline(driverId)).as("%s online", driverId).isFalse();
+        assertThat(index.get(driverId)).as("%s indexed", driverId).isNull();
+    }
+}
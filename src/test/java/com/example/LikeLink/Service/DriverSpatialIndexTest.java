@@ -0,0 +1,142 @@
+package com.example.LikeLink.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.LikeLink.Util.GeoDistance;
+
+class DriverSpatialIndexTest {
+
+    private static final double TOLERANCE_KM = 1e-9;
+
+    private final DriverSpatialIndex index = new DriverSpatialIndex();
+    private final Map<String, double[]> positions = new HashMap<>();
+
+    @Test
+    void nearestMatchesLinearScanInACity() {
+        Random random = new Random(21);
+        // 2000 drivers over roughly 50 x 50 km, so queries cross many 0.02 degree cells
+        for (int i = 0; i < 2000; i++) {
+            place("d" + i, 12.75 + random.nextDouble() * 0.45, 77.35 + random.nextDouble() * 0.45);
+        }
+        for (int query = 0; query < 300; query++) {
+            assertNearestMatchesLinearScan(12.7 + random.nextDouble() * 0.55, 77.3 + random.nextDouble() * 0.55,
+                1 + random.nextInt(12), 1 + random.nextDouble() * 15);
+        }
+    }
+
+    @Test
+    void nearestSearchesOutwardPastEmptyRings() {
+        // Nothing in the query's own cell or the next few rings, the closest driver is ~8 km north
+        place("far", 13.05, 77.59);
+        place("further", 13.10, 77.59);
+        place("outside", 13.30, 77.59);
+
+        List<DriverSpatialIndex.Neighbor> nearest = index.nearest(12.978, 77.59, 2, 20);
+        assertThat(nearest).extracting(DriverSpatialIndex.Neighbor::getDriverId).containsExactly("far", "further");
+        // maxRadiusKm still caps the search
+        assertThat(index.nearest(12.978, 77.59, 3, 20)).hasSize(2);
+        assertThat(index.nearest(12.978, 77.59, 3, 5)).isEmpty();
+    }
+
+    @Test
+    void nearestAtHighLatitudesAndAcrossTheAntimeridian() {
+        Random random = new Random(22);
+        for (int i = 0; i < 500; i++) {
+            place("n" + i, 69.5 + random.nextDouble(), 18.5 + random.nextDouble() * 2);
+            double longitude = 179.7 + random.nextDouble() * 0.6;
+            place("a" + i, -16.9 + random.nextDouble() * 0.6, longitude > 180 ? longitude - 360 : longitude);
+        }
+        for (int query = 0; query < 100; query++) {
+            assertNearestMatchesLinearScan(69.6 + random.nextDouble() * 0.8, 18.6 + random.nextDouble() * 1.8,
+                1 + random.nextInt(8), 10);
+            assertNearestMatchesLinearScan(-16.8 + random.nextDouble() * 0.4, random.nextBoolean() ? 179.95 : -179.95,
+                1 + random.nextInt(8), 10);
+        }
+    }
+
+    @Test
+    void withinRadiusMatchesLinearScan() {
+        Random random = new Random(23);
+        for (int i = 0; i < 1000; i++) {
+            place("d" + i, 12.8 + random.nextDouble() * 0.3, 77.4 + random.nextDouble() * 0.3);
+        }
+        for (int query = 0; query < 100; query++) {
+            double latitude = 12.8 + random.nextDouble() * 0.3;
+            double longitude = 77.4 + random.nextDouble() * 0.3;
+            double radiusKm = random.nextDouble() * 8;
+            List<Double> expected = positions.values().stream()
+                .map(position -> GeoDistance.haversineKm(latitude, longitude, position[0], position[1]))
+                .filter(distance -> distance <= radiusKm)
+                .sorted()
+                .toList();
+
+            assertThat(index.withinRadius(latitude, longitude, radiusKm))
+                .extracting(DriverSpatialIndex.Neighbor::getDistanceKm)
+                .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void movingBetweenCellsLeavesNothingBehind() {
+        place("d1", 12.971, 77.591);
+        place("d2", 12.972, 77.592);
+
+        // Several cells east, then back into a neighbouring cell of the start
+        place("d1", 12.971, 77.701);
+        assertThat(ids(index.withinRadius(12.971, 77.591, 1))).containsExactly("d2");
+        assertThat(ids(index.withinRadius(12.971, 77.701, 1))).containsExactly("d1");
+
+        place("d1", 12.991, 77.611);
+        assertThat(ids(index.withinRadius(12.971, 77.701, 1))).isEmpty();
+        assertThat(ids(index.nearest(12.991, 77.611, 1, 5))).containsExactly("d1");
+        assertThat(index.get("d1").getLatitude()).isEqualTo(12.991);
+        assertThat(index.size()).isEqualTo(2);
+
+        // A move inside the same cell only updates the position
+        place("d2", 12.9725, 77.5925);
+        assertThat(index.withinRadius(12.9725, 77.5925, 0.001)).hasSize(1);
+
+        index.remove("d1");
+        positions.remove("d1");
+        assertThat(index.get("d1")).isNull();
+        assertThat(ids(index.nearest(12.991, 77.611, 2, 10))).containsExactly("d2");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private void place(String driverId, double latitude, double longitude) {
+        index.update(driverId, latitude, longitude);
+        positions.put(driverId, new double[] {latitude, longitude});
+    }
+
+    private void assertNearestMatchesLinearScan(double latitude, double longitude, int k, double maxRadiusKm) {
+        List<Double> expected = positions.values().stream()
+            .map(position -> GeoDistance.haversineKm(latitude, longitude, position[0], position[1]))
+            .filter(distance -> distance <= maxRadiusKm)
+            .sorted()
+            .limit(k)
+            .toList();
+
+        List<DriverSpatialIndex.Neighbor> actual = index.nearest(latitude, longitude, k, maxRadiusKm);
+
+        // Distances rather than ids, equally distant drivers may come back in either order
+        assertThat(actual).as("k=%d within %s km of (%s, %s)", k, maxRadiusKm, latitude, longitude)
+            .hasSize(expected.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertThat(actual.get(i).getDistanceKm())
+                .as("rank %d from (%s, %s)", i, latitude, longitude)
+                .isCloseTo(expected.get(i), within(TOLERANCE_KM));
+        }
+    }
+
+    private static List<String> ids(List<DriverSpatialIndex.Neighbor> neighbors) {
+        return neighbors.stream().map(DriverSpatialIndex.Neighbor::getDriverId).toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.LikeLink.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.LikeLink.Model.Hospital;
+import com.example.LikeLink.Util.GeoDistance;
+
+class HospitalDirectoryKdTreeTest {
+
+    private static final double TOLERANCE_KM = 1e-6;
+
+    @Test
+    void nearestMatchesLinearScanWorldwide() {
+        Random random = new Random(1);
+        List<Hospital> hospitals = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            hospitals.add(hospital("h" + i, randomLatitude(random), random.nextDouble() * 360 - 180));
+        }
+        HospitalDirectory.KdTree tree = HospitalDirectory.KdTree.build(hospitals);
+
+        for (int query = 0; query < 300; query++) {
+            assertMatchesLinearScan(tree, hospitals, randomLatitude(random), random.nextDouble() * 360 - 180,
+                1 + random.nextInt(10));
+        }
+    }
+
+    @Test
+    void nearestAcrossTheAntimeridian() {
+        Random random = new Random(2);
+        List<Hospital> hospitals = new ArrayList<>();
+        // Clustered on both sides of 180 degrees, where longitudes jump from 179.x to -179.x
+        for (int i = 0; i < 200; i++) {
+            double longitude = 178 + random.nextDouble() * 4;
+            hospitals.add(hospital("h" + i, random.nextDouble() * 20 - 10,
+                longitude > 180 ? longitude - 360 : longitude));
+        }
+        HospitalDirectory.KdTree tree = HospitalDirectory.KdTree.build(hospitals);
+
+        assertMatchesLinearScan(tree, hospitals, 0, 180, 5);
+        assertMatchesLinearScan(tree, hospitals, 0, -180, 5);
+        assertMatchesLinearScan(tree, hospitals, 1, 179.99, 8);
+        assertMatchesLinearScan(tree, hospitals, -1, -179.99, 8);
+
+        // The closest hospital to a point just west of the line can sit just east of it
+        List<Hospital> pair = List.of(hospital("west", 0, 170), hospital("east", 0, -179.9));
+        List<HospitalDirectory.NearbyHospital> nearest = HospitalDirectory.KdTree.build(pair).nearest(0, 179.9, 1);
+        assertThat(nearest.get(0).getHospital().getId()).isEqualTo("east");
+    }
+
+    @Test
+    void nearestAroundThePoles() {
+        Random random = new Random(3);
+        List<Hospital> hospitals = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            double latitude = 80 + random.nextDouble() * 10;
+            hospitals.add(hospital("n" + i, latitude, random.nextDouble() * 360 - 180));
+            hospitals.add(hospital("s" + i, -latitude, random.nextDouble() * 360 - 180));
+        }
+        hospitals.add(hospital("north-pole", 90, 0));
+        hospitals.add(hospital("south-pole", -90, 123));
+        HospitalDirectory.KdTree tree = HospitalDirectory.KdTree.build(hospitals);
+
+        for (double longitude = -180; longitude <= 180; longitude += 45) {
+            assertMatchesLinearScan(tree, hospitals, 90, longitude, 6);
+            assertMatchesLinearScan(tree, hospitals, -90, longitude, 6);
+            assertMatchesLinearScan(tree, hospitals, 89.5, longitude, 6);
+            assertMatchesLinearScan(tree, hospitals, -89.5, longitude, 6);
+        }
+        // At a pole every longitude is the same point
+        assertThat(tree.nearest(90, 77, 1).get(0).getHospital().getId()).isEqualTo("north-pole");
+        assertThat(tree.nearest(-90, -10, 1).get(0).getHospital().getId()).isEqualTo("south-pole");
+    }
+
+    @Test
+    void smallAndEmptyTrees() {
+        assertThat(HospitalDirectory.KdTree.build(List.of()).nearest(10, 10, 3)).isEmpty();
+
+        List<Hospital> hospitals = List.of(hospital("a", 10, 10), hospital("b", 20, 20), hospital("c", -5, 40));
+        HospitalDirectory.KdTree tree = HospitalDirectory.KdTree.build(hospitals);
+        assertThat(tree.nearest(10, 10, 0)).isEmpty();
+        // Asking for more than there are returns all of them, closest first
+        assertMatchesLinearScan(tree, hospitals, 10, 10, 10);
+    }
+
+    private static void assertMatchesLinearScan(HospitalDirectory.KdTree tree, List<Hospital> hospitals,
+                                                double latitude, double longitude, int k) {
+        List<Double> expected = hospitals.stream()
+            .map(hospital -> GeoDistance.haversineKm(latitude, longitude, hospital.getLatitude(), hospital.getLongitude()))
+            .sorted(Comparator.naturalOrder())
+            .limit(k)
+            .toList();
+
+        List<HospitalDirectory.NearbyHospital> actual = tree.nearest(latitude, longitude, k);
+
+        // Distances rather than ids, equally distant hospitals may come back in either order
+        assertThat(actual).hasSize(expected.size());
+        for (int i = 0; i < actual.size(); i++) {
+            HospitalDirectory.NearbyHospital nearby = actual.get(i);
+            assertThat(nearby.getDistanceKm())
+                .as("rank %d from (%s, %s)", i, latitude, longitude)
+                .isCloseTo(expected.get(i), within(TOLERANCE_KM));
+            assertThat(nearby.getDistanceKm()).isCloseTo(GeoDistance.haversineKm(latitude, longitude,
+                nearby.getHospital().getLatitude(), nearby.getHospital().getLongitude()), within(TOLERANCE_KM));
+        }
+    }
+
+    // Uniform over the sphere's surface, so the poles are not oversampled
+    private static double randomLatitude(Random random) {
+        return Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+    }
+
+    private static Hospital hospital(String id, double latitude, double longitude) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setHospitalName(id);
+        hospital.setLatitude(latitude);
+        hospital.setLongitude(longitude);
+        return hospital;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.LikeLink.Service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.LikeLink.Service.LocationUpdateFilter.Decision;
+
+class LocationUpdateFilterTest {
+
+    private static final long MAX_SILENCE_MS = 60_000;
+    private static final long PING_MS = 10_000;
+    private static final long START = 1_000_000_000L;
+    // About 111 m northwards per ping, roughly 40 km/h
+    private static final double STEP_DEG = 0.001;
+    private static final double LAT = 12.97;
+    private static final double LON = 77.59;
+
+    private final AtomicLong now = new AtomicLong(START);
+    private LocationUpdateFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LocationUpdateFilter();
+        ReflectionTestUtils.setField(filter, "minMovementMeters", 20.0);
+        ReflectionTestUtils.setField(filter, "deadReckoningToleranceMeters", 30.0);
+        ReflectionTestUtils.setField(filter, "maxSilenceMs", MAX_SILENCE_MS);
+        filter.clock = now::get;
+    }
+
+    @Test
+    void firstPingIsAccepted() {
+        assertThat(filter.evaluate("d1", LAT, LON)).isEqualTo(Decision.ACCEPT);
+    }
+
+    @Test
+    void parkedDriverIsStationaryUntilMaxSilence() {
+        filter.accept("d1", LAT, LON);
+
+        now.addAndGet(PING_MS);
+        // About 11 m of GPS jitter
+        assertThat(filter.evaluate("d1", LAT + 0.0001, LON)).isEqualTo(Decision.STATIONARY);
+
+        now.set(START + MAX_SILENCE_MS - 1);
+        assertThat(filter.evaluate("d1", LAT, LON)).isEqualTo(Decision.STATIONARY);
+
+        now.set(START + MAX_SILENCE_MS);
+        assertThat(filter.evaluate("d1", LAT, LON)).as("refreshed after max-silence").isEqualTo(Decision.ACCEPT);
+        assertThat(filter.getSuppressedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void straightLineMovementIsPredictedAndATurnIsNot() {
+        filter.accept("d1", LAT, LON);
+        now.addAndGet(PING_MS);
+        // One step alone does not give a velocity to extrapolate from
+        assertThat(filter.evaluate("d1", LAT + STEP_DEG, LON)).isEqualTo(Decision.ACCEPT);
+        filter.accept("d1", LAT + STEP_DEG, LON);
+
+        now.addAndGet(PING_MS);
+        assertThat(filter.evaluate("d1", LAT + 2 * STEP_DEG, LON)).isEqualTo(Decision.PREDICTED);
+        now.addAndGet(PING_MS);
+        // Predictions extrapolate from the last persisted fix, not from the suppressed pings
+        assertThat(filter.evaluate("d1", LAT + 3 * STEP_DEG, LON + 0.0001)).isEqualTo(Decision.PREDICTED);
+
+        // Turned east instead of carrying on north: about 110 m off the prediction
+        assertThat(filter.evaluate("d1", LAT + 2 * STEP_DEG, LON + STEP_DEG)).isEqualTo(Decision.ACCEPT);
+    }
+
+    @Test
+    void velocityIsNotExtrapolatedAcrossASilence() {
+        filter.accept("d1", LAT, LON);
+        now.addAndGet(PING_MS);
+        filter.accept("d1", LAT + STEP_DEG, LON);
+
+        now.addAndGet(MAX_SILENCE_MS);
+        assertThat(filter.evaluate("d1", LAT + 8 * STEP_DEG, LON)).isEqualTo(Decision.ACCEPT);
+        filter.accept("d1", LAT + 8 * STEP_DEG, LON);
+
+        // The silence reset the velocity, so carrying on north is new information again
+        now.addAndGet(PING_MS);
+        assertThat(filter.evaluate("d1", LAT + 9 * STEP_DEG, LON)).isEqualTo(Decision.ACCEPT);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void silentAndForgottenTracksStartOver() {
+        filter.accept("d1", LAT, LON);
+        filter.accept("d2", LAT, LON);
+        now.addAndGet(MAX_SILENCE_MS / 2);
+        filter.accept("d3", LAT, LON);
+
+        now.set(START + MAX_SILENCE_MS);
+        filter.evictSilent();
+        assertThat((Map<String, ?>) ReflectionTestUtils.getField(filter, "tracks")).containsOnlyKeys("d3");
+        filter.forget("d3");
+
+        // d3 was accepted half a silence ago at this spot and would otherwise be STATIONARY
+        assertThat(filter.evaluate("d1", LAT, LON)).isEqualTo(Decision.ACCEPT);
+        assertThat(filter.evaluate("d3", LAT, LON)).isEqualTo(Decision.ACCEPT);
+        assertThat(filter.getAcceptedCount()).isEqualTo(3);
+        assertThat(filter.getSuppressedCount()).isZero();
+    }
+}
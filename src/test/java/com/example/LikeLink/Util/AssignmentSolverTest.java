@@ -0,0 +1,116 @@
+package com.example.LikeLink.Util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class AssignmentSolverTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void matchesBruteForceOnSmallRectangularMatrices() {
+        Random random = new Random(42);
+        for (int rows = 1; rows <= 6; rows++) {
+            for (int columns = 1; columns <= 6; columns++) {
+                for (int trial = 0; trial < 20; trial++) {
+                    // Integer costs from a small range so ties between optimal assignments are common
+                    double[][] cost = randomMatrix(random, rows, columns, trial % 2 == 0 ? 5 : 1000);
+                    assertOptimal(cost);
+                }
+            }
+        }
+    }
+
+    @Test
+    void handlesFractionalAndNegativeCosts() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 200; trial++) {
+            int rows = 1 + random.nextInt(6);
+            int columns = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][columns];
+            for (double[] row : cost) {
+                for (int column = 0; column < columns; column++) {
+                    row[column] = random.nextGaussian() * 50;
+                }
+            }
+            assertOptimal(cost);
+        }
+    }
+
+    @Test
+    void emptyInputs() {
+        assertThat(AssignmentSolver.solve(new double[0][0])).isEmpty();
+        assertThat(AssignmentSolver.solve(new double[3][0])).containsExactly(-1, -1, -1);
+    }
+
+    private static void assertOptimal(double[][] cost) {
+        int rows = cost.length;
+        int columns = cost[0].length;
+        int[] assignment = AssignmentSolver.solve(cost);
+
+        assertThat(assignment).hasSize(rows);
+        Set<Integer> usedColumns = new HashSet<>();
+        double total = 0;
+        for (int row = 0; row < rows; row++) {
+            int column = assignment[row];
+            if (column < 0) {
+                continue;
+            }
+            assertThat(column).isLessThan(columns);
+            assertThat(usedColumns.add(column)).as("column %d assigned twice", column).isTrue();
+            total += cost[row][column];
+        }
+        assertThat(usedColumns).hasSize(Math.min(rows, columns));
+        assertThat(total).isCloseTo(bruteForce(cost), offset(EPSILON));
+    }
+
+    // Cheapest way to pair min(rows, columns) rows and columns, trying every injective mapping
+    private static double bruteForce(double[][] cost) {
+        int rows = cost.length;
+        int columns = cost[0].length;
+        return rows <= columns
+            ? search(cost, 0, new boolean[columns])
+            : search(transpose(cost), 0, new boolean[rows]);
+    }
+
+    private static double search(double[][] cost, int row, boolean[] used) {
+        if (row == cost.length) {
+            return 0;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int column = 0; column < used.length; column++) {
+            if (!used[column]) {
+                used[column] = true;
+                best = Math.min(best, cost[row][column] + search(cost, row + 1, used));
+                used[column] = false;
+            }
+        }
+        return best;
+    }
+
+    private static double[][] transpose(double[][] cost) {
+        double[][] transposed = new double[cost[0].length][cost.length];
+        for (int row = 0; row < cost.length; row++) {
+            for (int column = 0; column < cost[0].length; column++) {
+                transposed[column][row] = cost[row][column];
+            }
+        }
+        return transposed;
+    }
+
+    private static double[][] randomMatrix(Random random, int rows, int columns, int bound) {
+        double[][] cost = new double[rows][columns];
+        for (double[] row : cost) {
+            for (int column = 0; column < columns; column++) {
+                row[column] = random.nextInt(bound);
+            }
+        }
+        return cost;
+    }
+}
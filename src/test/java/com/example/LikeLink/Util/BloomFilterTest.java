@@ -0,0 +1,109 @@
+package com.example.LikeLink.Util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.LikeLink.Config.Security.Jwt.VerifiedTokenCache;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnAddedKeyAsAbsent() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        // Past the expected size too, where false positives climb but false negatives must not appear
+        for (int i = 0; i < 30_000; i++) {
+            add(filter, "token-" + i);
+        }
+        for (int i = 0; i < 30_000; i++) {
+            assertThat(mightContain(filter, "token-" + i)).as("token-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsCloseToTheConfiguredOne() {
+        assertFalsePositiveRate(20_000, 0.01);
+        assertFalsePositiveRate(20_000, 0.001);
+    }
+
+    @Test
+    void halfFullFilterStaysWellBelowTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            add(filter, "token-" + i);
+        }
+        assertThat(measureFalsePositiveRate(filter, 200_000)).isLessThan(0.005);
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < 40_000; i += 8) {
+                        add(filter, "token-" + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (int i = 0; i < 40_000; i++) {
+            assertThat(mightContain(filter, "token-" + i)).as("token-%d", i).isTrue();
+        }
+    }
+
+    private static void assertFalsePositiveRate(int entries, double configured) {
+        BloomFilter filter = new BloomFilter(entries, configured);
+        for (int i = 0; i < entries; i++) {
+            add(filter, "token-" + i);
+        }
+        int probes = (int) Math.ceil(200 / configured);
+        double measured = measureFalsePositiveRate(filter, probes);
+        // About 200 expected hits, so +-50% is many standard deviations of sampling noise
+        assertThat(measured).as("false positive rate at p=%s", configured)
+            .isBetween(configured * 0.5, configured * 1.5);
+    }
+
+    private static double measureFalsePositiveRate(BloomFilter filter, int probes) {
+        int hits = 0;
+        for (int i = 0; i < probes; i++) {
+            if (mightContain(filter, "absent-" + i)) {
+                hits++;
+            }
+        }
+        return (double) hits / probes;
+    }
+
+    // Same key derivation as TokenRevocationList: the two halves of a SHA-256 prefix
+    private static void add(BloomFilter filter, String token) {
+        String hash = VerifiedTokenCache.hash(token);
+        filter.add(h1(hash), h2(hash));
+    }
+
+    private static boolean mightContain(BloomFilter filter, String token) {
+        String hash = VerifiedTokenCache.hash(token);
+        return filter.mightContain(h1(hash), h2(hash));
+    }
+
+    private static long h1(String hash) {
+        return Long.parseUnsignedLong(hash, 0, 16, 16);
+    }
+
+    private static long h2(String hash) {
+        return Long.parseUnsignedLong(hash, 16, 32, 16);
+    }
+}
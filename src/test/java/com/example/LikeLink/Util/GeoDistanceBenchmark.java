@@ -0,0 +1,117 @@
+package com.example.LikeLink.Util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ranking N candidates around one pickup point: the haversine that used to be copy-pasted in
+ * BookingService and DriverLocationService against the GeoDistance kernels.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=GeoDistance
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoDistanceBenchmark {
+
+    private static final double PICKUP_LAT = 12.9716;
+    private static final double PICKUP_LON = 77.5946;
+    private static final double RADIUS_KM = 10.0;
+
+    @Param({"100", "500", "5000"})
+    private int candidates;
+
+    private double[] lats;
+    private double[] lons;
+    private double[] distances;
+    private int[] indexes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lats = new double[candidates];
+        lons = new double[candidates];
+        distances = new double[candidates];
+        indexes = new int[candidates];
+        // Spread over roughly 60 x 60 km so only part of the fleet is inside the radius
+        for (int i = 0; i < candidates; i++) {
+            lats[i] = PICKUP_LAT + (random.nextDouble() - 0.5) * 0.55;
+            lons[i] = PICKUP_LON + (random.nextDouble() - 0.5) * 0.55;
+        }
+    }
+
+    @Benchmark
+    public int legacyHaversineNearest() {
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < candidates; i++) {
+            double distance = legacyDistance(lats[i], lons[i], PICKUP_LAT, PICKUP_LON);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    public int legacyHaversineWithinRadius() {
+        int found = 0;
+        for (int i = 0; i < candidates; i++) {
+            double distance = legacyDistance(lats[i], lons[i], PICKUP_LAT, PICKUP_LON);
+            if (distance <= RADIUS_KM) {
+                indexes[found] = i;
+                distances[found] = distance;
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public double[] queryExactBatch() {
+        GeoDistance.from(PICKUP_LAT, PICKUP_LON)
+            .distancesKm(lats, lons, candidates, distances, GeoDistance.Precision.EXACT);
+        return distances;
+    }
+
+    @Benchmark
+    public double[] queryFastBatch() {
+        GeoDistance.from(PICKUP_LAT, PICKUP_LON)
+            .distancesKm(lats, lons, candidates, distances, GeoDistance.Precision.FAST);
+        return distances;
+    }
+
+    @Benchmark
+    public int queryFilterWithinRadius() {
+        return GeoDistance.from(PICKUP_LAT, PICKUP_LON)
+            .filterWithin(lats, lons, candidates, RADIUS_KM, indexes, distances);
+    }
+
+    // Verbatim copy of the pre-GeoDistance BookingService.calculateDistance
+    private static double legacyDistance(double lat1, double lon1, double lat2, double lon2) {
+        double R = 6371;
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat/2) * Math.sin(dLat/2) +
+                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                   Math.sin(dLon/2) * Math.sin(dLon/2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
+        return R * c;
+    }
+}
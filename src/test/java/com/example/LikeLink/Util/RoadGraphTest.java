@@ -0,0 +1,196 @@
+package com.example.LikeLink.Util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RoadGraphTest {
+
+    private static final int SIDE = 20;
+    private static final double ORIGIN_LAT = 12.90;
+    private static final double ORIGIN_LON = 77.50;
+    private static final double SPACING_DEG = 0.002;
+    private static final double MAX_SPEED_KMH = 120;
+    private static final double MS_PER_KM = 3_600_000.0 / MAX_SPEED_KMH;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void aStarMatchesDijkstraOnAGrid() throws IOException {
+        Grid grid = grid(new Random(11), false);
+        RoadGraph graph = writeAndLoad(grid);
+
+        assertThat(graph.nodeCount()).isEqualTo(SIDE * SIDE);
+        assertThat(graph.edgeCount()).isEqualTo(grid.edgeTarget.length);
+        Random random = new Random(12);
+        for (int query = 0; query < 300; query++) {
+            int source = random.nextInt(SIDE * SIDE);
+            int target = random.nextInt(SIDE * SIDE);
+            assertThat(graph.travelTimeMs(source, target))
+                .as("%d -> %d", source, target)
+                .isEqualTo(dijkstra(grid, source, target));
+        }
+    }
+
+    @Test
+    void unreachableNodesAreReportedAsSuch() throws IOException {
+        // One-way streets pointing away from the origin corner: nothing leads back to node 0
+        Grid grid = grid(new Random(13), true);
+        RoadGraph graph = writeAndLoad(grid);
+
+        assertThat(graph.travelTimeMs(SIDE * SIDE - 1, 0)).isEqualTo(RoadGraph.UNREACHABLE);
+        assertThat(graph.travelTimeMs(0, SIDE * SIDE - 1)).isEqualTo(dijkstra(grid, 0, SIDE * SIDE - 1));
+        assertThat(graph.travelTimeMs(5, 5)).isZero();
+    }
+
+    @Test
+    void snapsToTheClosestNode() throws IOException {
+        Grid grid = grid(new Random(14), false);
+        RoadGraph graph = writeAndLoad(grid);
+
+        Random random = new Random(15);
+        for (int query = 0; query < 500; query++) {
+            double latitude = ORIGIN_LAT - 0.005 + random.nextDouble() * (SIDE * SPACING_DEG + 0.01);
+            double longitude = ORIGIN_LON - 0.005 + random.nextDouble() * (SIDE * SPACING_DEG + 0.01);
+            int snapped = graph.nearestNode(latitude, longitude);
+
+            assertThat(snapped).as("snap (%s, %s)", latitude, longitude).isNotNegative();
+            // Distances rather than ids, a point halfway between two nodes may snap to either
+            assertThat(distanceKm(graph, snapped, latitude, longitude))
+                .isCloseTo(closestKm(graph, latitude, longitude), within(1e-9));
+        }
+        assertThat(graph.nearestNode(ORIGIN_LAT + 1, ORIGIN_LON + 1)).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsDecreasingOffsets() throws IOException {
+        Grid grid = grid(new Random(16), false);
+        int[] firstEdge = grid.firstEdge.clone();
+        firstEdge[7] = firstEdge[8] + 1;
+
+        assertThatThrownBy(() -> writeAndLoad(new Grid(grid.lats, grid.lons, firstEdge, grid.edgeTarget, grid.edgeTimeMs)))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("offsets decrease");
+    }
+
+    @Test
+    void rejectsOffsetsThatDoNotCoverTheEdges() throws IOException {
+        Grid grid = grid(new Random(17), false);
+        int[] firstEdge = grid.firstEdge.clone();
+        firstEdge[0] = 1;
+
+        assertThatThrownBy(() -> writeAndLoad(new Grid(grid.lats, grid.lons, firstEdge, grid.edgeTarget, grid.edgeTimeMs)))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("offsets must run");
+    }
+
+    @Test
+    void rejectsTargetsOutOfRange() throws IOException {
+        Grid grid = grid(new Random(18), false);
+        int[] edgeTarget = grid.edgeTarget.clone();
+        edgeTarget[edgeTarget.length / 2] = SIDE * SIDE;
+
+        assertThatThrownBy(() -> writeAndLoad(new Grid(grid.lats, grid.lons, grid.firstEdge, edgeTarget, grid.edgeTimeMs)))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("targets node");
+    }
+
+    private RoadGraph writeAndLoad(Grid grid) throws IOException {
+        Path file = dir.resolve("graph-" + System.nanoTime() + ".bin");
+        RoadGraph.write(file, grid.lats, grid.lons, grid.firstEdge, grid.edgeTarget, grid.edgeTimeMs, MAX_SPEED_KMH);
+        return RoadGraph.load(file, 2);
+    }
+
+    // SIDE x SIDE grid with 4-neighbour streets; every edge is slower than MAX_SPEED_KMH so A* stays exact
+    private static Grid grid(Random random, boolean oneWayFromOrigin) {
+        int nodes = SIDE * SIDE;
+        double[] lats = new double[nodes];
+        double[] lons = new double[nodes];
+        for (int row = 0; row < SIDE; row++) {
+            for (int column = 0; column < SIDE; column++) {
+                lats[row * SIDE + column] = ORIGIN_LAT + row * SPACING_DEG;
+                lons[row * SIDE + column] = ORIGIN_LON + column * SPACING_DEG;
+            }
+        }
+
+        int[] firstEdge = new int[nodes + 1];
+        List<Integer> targets = new ArrayList<>();
+        List<Integer> times = new ArrayList<>();
+        int[][] steps = oneWayFromOrigin ? new int[][] {{1, 0}, {0, 1}} : new int[][] {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        for (int node = 0; node < nodes; node++) {
+            firstEdge[node] = targets.size();
+            int row = node / SIDE;
+            int column = node % SIDE;
+            for (int[] step : steps) {
+                int nextRow = row + step[0];
+                int nextColumn = column + step[1];
+                if (nextRow < 0 || nextRow >= SIDE || nextColumn < 0 || nextColumn >= SIDE) {
+                    continue;
+                }
+                int next = nextRow * SIDE + nextColumn;
+                double km = GeoDistance.haversineKm(lats[node], lons[node], lats[next], lons[next]);
+                // Between 1.05x and 4x the free-flow time, so the shortest route is rarely the straight one
+                targets.add(next);
+                times.add((int) Math.ceil(km * MS_PER_KM * (1.05 + random.nextDouble() * 3)));
+            }
+        }
+        firstEdge[nodes] = targets.size();
+        return new Grid(lats, lons, firstEdge,
+            targets.stream().mapToInt(Integer::intValue).toArray(),
+            times.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int dijkstra(Grid grid, int source, int target) {
+        int[] cost = new int[grid.lats.length];
+        Arrays.fill(cost, Integer.MAX_VALUE);
+        cost[source] = 0;
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        queue.add(new int[] {source, 0});
+        while (!queue.isEmpty()) {
+            int[] head = queue.poll();
+            int node = head[0];
+            if (head[1] > cost[node]) {
+                continue;
+            }
+            if (node == target) {
+                return cost[node];
+            }
+            for (int edge = grid.firstEdge[node]; edge < grid.firstEdge[node + 1]; edge++) {
+                int next = grid.edgeTarget[edge];
+                int nextCost = cost[node] + grid.edgeTimeMs[edge];
+                if (nextCost < cost[next]) {
+                    cost[next] = nextCost;
+                    queue.add(new int[] {next, nextCost});
+                }
+            }
+        }
+        return RoadGraph.UNREACHABLE;
+    }
+
+    private static double closestKm(RoadGraph graph, double latitude, double longitude) {
+        double best = Double.MAX_VALUE;
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            best = Math.min(best, distanceKm(graph, node, latitude, longitude));
+        }
+        return best;
+    }
+
+    private static double distanceKm(RoadGraph graph, int node, double latitude, double longitude) {
+        return GeoDistance.haversineKm(latitude, longitude, graph.nodeLatitude(node), graph.nodeLongitude(node));
+    }
+
+    private record Grid(double[] lats, double[] lons, int[] firstEdge, int[] edgeTarget, int[] edgeTimeMs) {
+    }
+}